@@ -0,0 +1,75 @@
+package com.dannycodev.bookstore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Arranque compartido por los benchmarks: un contexto de Spring sin servidor web
+ * sobre una base H2 en memoria propia, y utilidades para poblar el catálogo.
+ */
+final class BenchmarkContext {
+
+    private static final int SEED_CHUNK = 10_000;
+
+    private BenchmarkContext() {
+    }
+
+    /**
+     * {@code extraProperties} van como argumentos de la línea de órdenes, así que
+     * prevalecen sobre {@code application.properties}.
+     */
+    static ConfigurableApplicationContext start(String... extraProperties) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        return new SpringApplicationBuilder(BookstoreApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "logging.level.root=WARN")
+                .run(Arrays.stream(extraProperties).map(property -> "--" + property).toArray(String[]::new));
+    }
+
+    /**
+     * Inserta {@code size} libros y devuelve sus ids.
+     */
+    static long[] seed(BookService bookService, int size) {
+        return seed(bookService, 0, size);
+    }
+
+    /**
+     * Inserta los libros {@code offset} a {@code offset + size - 1} y devuelve sus ids.
+     * Título y autor son clave única: cada número solo puede insertarse una vez.
+     */
+    static long[] seed(BookService bookService, long offset, int size) {
+        long[] ids = new long[size];
+        int next = 0;
+        for (int from = 0; from < size; from += SEED_CHUNK) {
+            List<Book> chunk = books(offset + from, Math.min(SEED_CHUNK, size - from));
+            bookService.ingestBooks(chunk);
+            for (Book book : chunk) {
+                ids[next++] = book.getId();
+            }
+        }
+        return ids;
+    }
+
+    static List<Book> books(long offset, int count) {
+        List<Book> books = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            books.add(book(offset + i));
+        }
+        return books;
+    }
+
+    static Book book(long n) {
+        return Book.builder()
+                .title("Libro " + n)
+                .author("Autor " + (n % 1_000))
+                .build();
+    }
+}
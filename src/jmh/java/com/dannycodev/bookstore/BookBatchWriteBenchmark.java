@@ -0,0 +1,72 @@
+package com.dannycodev.bookstore;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Escrituras por lotes: {@code saveBooks} frente a {@code ingestBooks} con
+ * distintos tamaños de lote. El resultado está en lotes por segundo; para
+ * obtener libros por segundo se multiplica por {@code batchSize}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookBatchWriteBenchmark {
+
+    @Param({"1000", "100000"})
+    public int catalogSize;
+
+    @Param({"10", "100", "1000"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private int offset;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        bookService = context.getBean(BookService.class);
+        BenchmarkContext.seed(bookService, catalogSize);
+        offset = catalogSize;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Book> saveBooks() {
+        return bookService.saveBooks(nextBatch());
+    }
+
+    @Benchmark
+    public BulkIngestReport ingestBooks() {
+        return bookService.ingestBooks(nextBatch());
+    }
+
+    private List<Book> nextBatch() {
+        List<Book> batch = BenchmarkContext.books(offset, batchSize);
+        offset += batchSize;
+        return batch;
+    }
+}
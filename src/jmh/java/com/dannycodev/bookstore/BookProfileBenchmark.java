@@ -0,0 +1,75 @@
+package com.dannycodev.bookstore;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Carga concurrente con la configuración por defecto frente al perfil {@code prod}
+ * ({@code application-prod.properties}): altas por lotes con {@code saveBooks} y
+ * listado por cursor. Varios hilos a la vez, para que el tamaño del pool cuente.
+ * El alta se mide en lotes de {@value #BATCH_SIZE} libros por segundo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class BookProfileBenchmark {
+
+    static final int BATCH_SIZE = 500;
+    private static final int CATALOG_SIZE = 100_000;
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"default", "prod"})
+    public String profile;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private final AtomicLong offset = new AtomicLong(CATALOG_SIZE);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = "default".equals(profile)
+                ? BenchmarkContext.start()
+                : BenchmarkContext.start("spring.profiles.active=" + profile);
+        bookService = context.getBean(BookService.class);
+        BenchmarkContext.seed(bookService, CATALOG_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Book> saveBooks() {
+        int from = (int) offset.getAndAdd(BATCH_SIZE);
+        return bookService.saveBooks(BenchmarkContext.books(from, BATCH_SIZE));
+    }
+
+    @Benchmark
+    public BookPage<BookView> listBooks() {
+        long after = ThreadLocalRandom.current().nextLong(CATALOG_SIZE - PAGE_SIZE);
+        return bookService.getBookViewsPage(after, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,70 @@
+package com.dannycodev.bookstore;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Lecturas de {@link BookService} sobre catálogos de distinto tamaño.
+ * Para ver percentiles de latencia: {@code -Djmh.args="-bm sample"}. Con
+ * {@code snapshot=true} las lecturas salen de {@link BookCatalogSnapshot}; para comparar
+ * la memoria asignada por operación: {@code -Djmh.args="BookReadBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookReadBenchmark {
+
+    @Param({"1000", "100000"})
+    public int catalogSize;
+
+    @Param({"false", "true"})
+    public boolean snapshot;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("bookstore.snapshot.enabled=" + snapshot);
+        bookService = context.getBean(BookService.class);
+        ids = BenchmarkContext.seed(bookService, catalogSize);
+        // Todo el catálogo en la base de la instantánea, sin cambios pendientes
+        bookService.rebuildSearchIndex();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Book> getBookById() {
+        return bookService.getBookById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public List<Book> getAllBooks() {
+        return bookService.getAllBooks();
+    }
+}
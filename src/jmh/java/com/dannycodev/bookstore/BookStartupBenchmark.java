@@ -0,0 +1,140 @@
+package com.dannycodev.bookstore;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Tiempo hasta la primera respuesta: desde que se lanza la JVM con el jar empaquetado
+ * hasta que {@code GET /books?size=1} responde 200, es decir, contexto completo,
+ * Hibernate, servidor web y la primera consulta a la base de datos.
+ *
+ * <ul>
+ *   <li>{@code default}: {@code java -jar}, como se arranca hoy.</li>
+ *   <li>{@code lazy}: el mismo jar con el perfil {@code fast} (beans perezosos y
+ *       repositorios diferidos).</li>
+ *   <li>{@code aot-cds}: el perfil {@code fast} sobre la aplicación extraída, con el
+ *       código AOT y el archivo CDS. Necesita {@code -Pfast-startup}.</li>
+ * </ul>
+ *
+ * Cada iteración es un arranque en frío en un proceso nuevo:
+ * {@code ./mvnw -Pfast-startup,benchmark verify -Djmh.args="BookStartupBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BookStartupBenchmark {
+
+    private static final Path TARGET = Path.of("target");
+    private static final Path EXTRACTED = TARGET.resolve("application");
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+
+    @Param({"default", "lazy", "aot-cds"})
+    public String mode;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+    private List<String> command;
+    private Process process;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        command = new ArrayList<>(List.of(java));
+        switch (mode) {
+            case "default" -> command.addAll(List.of("-jar", findJar(TARGET).toString()));
+            case "lazy" -> command.addAll(List.of("-Dspring.profiles.active=fast", "-jar", findJar(TARGET).toString()));
+            case "aot-cds" -> {
+                Path archive = EXTRACTED.resolve("application.jsa");
+                if (!Files.exists(archive)) {
+                    throw new IllegalStateException("No existe " + archive + ": ejecuta con -Pfast-startup,benchmark");
+                }
+                command.addAll(List.of("-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=true",
+                        "-Dspring.profiles.active=fast", "-jar", findJar(EXTRACTED).toString()));
+            }
+            default -> throw new IllegalArgumentException("Modo desconocido: " + mode);
+        }
+    }
+
+    @Benchmark
+    public int timeToFirstRequest() throws Exception {
+        int port = freePort();
+        List<String> run = new ArrayList<>(command);
+        run.addAll(List.of("--server.port=" + port, "--logging.level.root=WARN"));
+        process = new ProcessBuilder(run)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/books?size=1")).build();
+        long deadline = System.nanoTime() + START_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("La aplicación terminó con código " + process.exitValue());
+            }
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return response.statusCode();
+                }
+            } catch (IOException e) {
+                // Todavía no escucha
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("La aplicación no respondió en " + START_TIMEOUT);
+    }
+
+    @TearDown(Level.Iteration)
+    public void stop() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+            process = null;
+        }
+    }
+
+    private static Path findJar(Path directory) throws IOException {
+        try (var jars = Files.newDirectoryStream(directory, "bookstore-*.jar")) {
+            for (Path jar : jars) {
+                return jar;
+            }
+        }
+        throw new IllegalStateException("No hay jar en " + directory + ": el benchmark necesita la fase package");
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.dannycodev.bookstore;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Escrituras individuales de {@link BookService}: alta, actualización y borrado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookWriteBenchmark {
+
+    private static final int REFILL = 10_000;
+
+    @Param({"1000", "100000"})
+    public int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private long[] ids;
+    // Siguiente número de libro sin usar: título y autor no pueden repetirse
+    private AtomicLong sequence;
+
+    // Ids disponibles para borrar; se reponen en bloque cuando se agotan
+    private long[] deletable = new long[0];
+    private int nextDeletable;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        bookService = context.getBean(BookService.class);
+        ids = BenchmarkContext.seed(bookService, catalogSize);
+        sequence = new AtomicLong(catalogSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Book saveBook() {
+        return bookService.saveBook(BenchmarkContext.book(sequence.getAndIncrement()));
+    }
+
+    @Benchmark
+    public Book updateBook() {
+        long id = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+        return bookService.updateBook(id, BenchmarkContext.book(sequence.getAndIncrement()));
+    }
+
+    @Benchmark
+    public void deleteBookById() {
+        if (nextDeletable == deletable.length) {
+            deletable = BenchmarkContext.seed(bookService, sequence.getAndAdd(REFILL), REFILL);
+            nextDeletable = 0;
+        }
+        bookService.deleteBookById(deletable[nextDeletable++]);
+    }
+}
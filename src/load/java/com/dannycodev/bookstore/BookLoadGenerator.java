@@ -0,0 +1,574 @@
+package com.dannycodev.bookstore;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Carga sostenida contra una aplicación ya arrancada: lanza una mezcla de operaciones
+ * de {@link BookService} ({@link BookLoadOperation}) a ritmo constante y mide la latencia
+ * de cada una con HdrHistogram.
+ *
+ * Cada petición tiene asignado de antemano el instante en que debe salir, y la latencia
+ * se cuenta desde ese instante y no desde que sale de verdad. Si el servidor se atasca y
+ * las peticiones se retrasan, ese retraso aparece en los percentiles en lugar de quedar
+ * oculto (omisión coordinada). También se guarda la latencia sin corregir para compararlas.
+ *
+ * Cada {@code --report-interval} escribe una fila con el ritmo, la latencia, el heap y
+ * las pausas de GC del servidor (leídos de Actuator, ver {@link BookLoadMonitor}). Al
+ * terminar escribe en {@code --output} el informe, la distribución de cada operación en
+ * formato {@code .hgrm} y si se cumplen los SLO. Con {@code --fail=true} termina con
+ * código 1 si alguno falla; el perfil de Maven {@code load} usa {@code --check} en la
+ * fase {@code verify}, después de parar la aplicación.
+ *
+ * Opciones ({@code --nombre=valor}): ver {@link Settings}.
+ */
+public final class BookLoadGenerator {
+
+    private static final int HISTOGRAM_DIGITS = 3;
+
+    private final Settings settings;
+    private final HttpClient httpClient;
+    private final BookLoadMonitor monitor;
+    private final Workload workload;
+
+    private final Map<BookLoadOperation, OperationStats> stats = new EnumMap<>(BookLoadOperation.class);
+    private final Recorder intervalLatency = new Recorder(HISTOGRAM_DIGITS);
+    private final LongAdder intervalErrors = new LongAdder();
+    private final Semaphore inFlight;
+
+    private long startNanos;
+    private long measureStartNanos;
+    private long lastReportNanos;
+    private Histogram intervalHistogram;
+    private BookLoadMonitor.Sample previousSample;
+    private final AtomicReference<BookLoadMonitor.Sample> measureStartSample = new AtomicReference<>();
+    private final List<BookLoadMonitor.Sample> measureSamples = new ArrayList<>();
+
+    private BookLoadGenerator(Settings settings) {
+        this.settings = settings;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        this.monitor = new BookLoadMonitor(httpClient, settings.url());
+        this.workload = new Workload(settings.batchSize(), settings.pageSize());
+        this.inFlight = new Semaphore(settings.maxInFlight());
+        for (BookLoadOperation operation : BookLoadOperation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.parse(args);
+        if (settings.check() != null) {
+            System.exit(check(settings.check()));
+        }
+        try {
+            boolean passed = new BookLoadGenerator(settings).run();
+            if (!passed && settings.fail()) {
+                System.exit(1);
+            }
+        } catch (Exception e) {
+            if (settings.fail()) {
+                throw e;
+            }
+            // Sin fallar aquí para que Maven pare la aplicación; --check lo hará después
+            e.printStackTrace();
+            writeResult(settings.output(), List.of("la prueba no terminó: " + e));
+        }
+    }
+
+    private boolean run() throws IOException, InterruptedException {
+        Files.createDirectories(settings.output());
+        awaitServer();
+        seed();
+
+        System.out.printf(Locale.ROOT, "%nCarga: %.0f ops/s durante %s (calentamiento %s), mezcla %s%n%n",
+                settings.rate(), settings.duration(), settings.warmup(), settings.mix());
+        try (PrintWriter timeline = new PrintWriter(Files.newBufferedWriter(settings.output().resolve("timeline.csv")));
+             ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor();
+             ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor()) {
+            timeline.println("segundo,fase,ops_s,p50_ms,p99_ms,max_ms,errores,en_curso,heap_mb,vivos_mb,pausas_gc,gc_ms,gc_max_ms");
+            System.out.println(" seg  fase    ops/s   p50 ms   p99 ms   máx ms  errores  en curso  heap MB  vivos MB  pausas GC  GC ms");
+
+            startNanos = System.nanoTime();
+            measureStartNanos = startNanos + settings.warmup().toNanos();
+            long endNanos = measureStartNanos + settings.duration().toNanos();
+            lastReportNanos = startNanos;
+            previousSample = monitor.sample();
+            long interval = settings.reportInterval().toNanos();
+            reporter.scheduleAtFixedRate(() -> report(timeline), interval, interval, TimeUnit.NANOSECONDS);
+            reporter.schedule(() -> measureStartSample.set(monitor.sample()), settings.warmup().toNanos(), TimeUnit.NANOSECONDS);
+
+            dispatch(requests, endNanos);
+
+            if (inFlight.tryAcquire(settings.maxInFlight(), 1, TimeUnit.MINUTES)) {
+                inFlight.release(settings.maxInFlight());
+            } else {
+                System.out.println("Quedan peticiones sin responder tras un minuto; se descartan");
+            }
+            reporter.shutdown();
+            reporter.awaitTermination(1, TimeUnit.MINUTES);
+            report(timeline);
+        }
+        return summarize(monitor.sample());
+    }
+
+    /**
+     * Una petición cada {@code 1/rate} segundos. Si se alcanzan {@code --max-in-flight}
+     * peticiones sin respuesta, espera a que acabe alguna; el tiempo de espera cuenta en
+     * la latencia de las siguientes, porque ya deberían haber salido.
+     */
+    private void dispatch(ExecutorService requests, long endNanos) {
+        double periodNanos = 1_000_000_000d / settings.rate();
+        for (long i = 0; ; i++) {
+            long intended = startNanos + Math.round(i * periodNanos);
+            if (intended >= endNanos) {
+                return;
+            }
+            for (long wait; (wait = intended - System.nanoTime()) > 0; ) {
+                LockSupport.parkNanos(wait);
+            }
+            inFlight.acquireUninterruptibly();
+            BookLoadOperation operation = settings.mix().next();
+            requests.execute(() -> {
+                try {
+                    call(operation, intended);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+    }
+
+    private void call(BookLoadOperation operation, long intended) {
+        long sent = System.nanoTime();
+        boolean ok;
+        try {
+            HttpRequest request = operation.request(settings.url(), workload);
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            ok = operation.accept(response, workload);
+        } catch (IOException | RuntimeException e) {
+            ok = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ok = false;
+        }
+        long done = System.nanoTime();
+        long correctedMicros = (done - intended) / 1_000;
+        intervalLatency.recordValue(correctedMicros);
+        if (!ok) {
+            intervalErrors.increment();
+        }
+        if (intended >= measureStartNanos) {
+            OperationStats operationStats = stats.get(operation);
+            operationStats.corrected.recordValue(correctedMicros);
+            operationStats.uncorrected.recordValue((done - sent) / 1_000);
+            if (!ok) {
+                operationStats.errors.increment();
+            }
+        }
+    }
+
+    private synchronized void report(PrintWriter timeline) {
+        intervalHistogram = intervalLatency.getIntervalHistogram(intervalHistogram);
+        long now = System.nanoTime();
+        double seconds = (intervalHistogram.getEndTimeStamp() - intervalHistogram.getStartTimeStamp()) / 1000d;
+        BookLoadMonitor.Sample sample = monitor.sample();
+        // La fase la marca el comienzo del intervalo
+        boolean measuring = lastReportNanos >= measureStartNanos;
+        lastReportNanos = now;
+        if (measuring) {
+            measureSamples.add(sample);
+        }
+        Object[] row = {
+                (now - startNanos) / 1_000_000_000L,
+                measuring ? "medida" : "calent",
+                seconds > 0 ? intervalHistogram.getTotalCount() / seconds : 0d,
+                millis(intervalHistogram.getValueAtPercentile(50)),
+                millis(intervalHistogram.getValueAtPercentile(99)),
+                millis(intervalHistogram.getMaxValue()),
+                intervalErrors.sumThenReset(),
+                settings.maxInFlight() - inFlight.availablePermits(),
+                megabytes(sample.heapUsedBytes()),
+                megabytes(sample.liveDataBytes()),
+                sample.gcPauses() - previousSample.gcPauses(),
+                sample.gcPauseMillis() - previousSample.gcPauseMillis(),
+                sample.gcMaxPauseMillis()
+        };
+        previousSample = sample;
+        timeline.printf(Locale.ROOT, "%d,%s,%.1f,%.2f,%.2f,%.2f,%d,%d,%d,%d,%d,%.1f,%.1f%n", row);
+        timeline.flush();
+        System.out.printf(Locale.ROOT, "%4d  %-6s %8.1f %8.2f %8.2f %8.2f %8d %9d %8d %9d %10d %6.1f%n",
+                Arrays.copyOf(row, 12));
+    }
+
+    /**
+     * Informe final: percentiles por operación, ritmo logrado, GC y SLO.
+     */
+    private boolean summarize(BookLoadMonitor.Sample end) throws IOException {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.ROOT, "%nLatencia en ms, contada desde la salida prevista (sin corregir: desde la salida real)%n"));
+        text.append(String.format(Locale.ROOT, "%-15s %10s %8s %9s %9s %9s %9s %14s%n",
+                "operación", "peticiones", "errores", "p50", "p99", "p99.9", "máx", "p99 sin corr."));
+        Histogram total = new Histogram(HISTOGRAM_DIGITS);
+        Histogram totalUncorrected = new Histogram(HISTOGRAM_DIGITS);
+        long errors = 0;
+        for (Map.Entry<BookLoadOperation, OperationStats> entry : stats.entrySet()) {
+            OperationStats operationStats = entry.getValue();
+            if (operationStats.corrected.getTotalCount() == 0) {
+                continue;
+            }
+            text.append(row(entry.getKey().method(), operationStats.corrected, operationStats.uncorrected,
+                    operationStats.errors.sum()));
+            total.add(operationStats.corrected);
+            totalUncorrected.add(operationStats.uncorrected);
+            errors += operationStats.errors.sum();
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(
+                    settings.output().resolve(entry.getKey().method() + ".hgrm")))) {
+                operationStats.corrected.outputPercentileDistribution(hgrm, 1000.0);
+            }
+        }
+        text.append(row("total", total, totalUncorrected, errors));
+
+        double seconds = settings.duration().toNanos() / 1_000_000_000d;
+        double throughput = total.getTotalCount() / seconds;
+        double errorRate = total.getTotalCount() == 0 ? 0 : (double) errors / total.getTotalCount();
+        text.append(String.format(Locale.ROOT, "%nRitmo: %.1f ops/s de %.1f previstas; errores: %.3f%%%n",
+                throughput, settings.rate(), errorRate * 100));
+
+        BookLoadMonitor.Sample start = measureStartSample.get() != null ? measureStartSample.get() : previousSample;
+        text.append(String.format(Locale.ROOT, "GC: %d pausas, %.1f ms en total, la mayor de %.1f ms%n",
+                end.gcPauses() - start.gcPauses(), end.gcPauseMillis() - start.gcPauseMillis(),
+                measureSamples.stream().mapToDouble(BookLoadMonitor.Sample::gcMaxPauseMillis).max().orElse(0)));
+        text.append(String.format(Locale.ROOT, "Heap: entre %d y %d MB; datos vivos de %d a %d MB%n",
+                megabytes(measureSamples.stream().mapToLong(BookLoadMonitor.Sample::heapUsedBytes).min().orElse(-1)),
+                megabytes(measureSamples.stream().mapToLong(BookLoadMonitor.Sample::heapUsedBytes).max().orElse(-1)),
+                megabytes(start.liveDataBytes()), megabytes(end.liveDataBytes())));
+
+        List<String> misses = new ArrayList<>();
+        text.append(String.format(Locale.ROOT, "%nSLO%n"));
+        checkLatency(text, misses, "p50", settings.sloP50(), total.getValueAtPercentile(50));
+        checkLatency(text, misses, "p99", settings.sloP99(), total.getValueAtPercentile(99));
+        checkLatency(text, misses, "p99.9", settings.sloP999(), total.getValueAtPercentile(99.9));
+        check(text, misses, String.format(Locale.ROOT, "errores <= %.3f%%: %.3f%%",
+                settings.sloErrorRate() * 100, errorRate * 100), errorRate <= settings.sloErrorRate());
+        check(text, misses, String.format(Locale.ROOT, "ritmo >= %.0f%% del previsto: %.1f ops/s",
+                settings.sloThroughput() * 100, throughput), throughput >= settings.sloThroughput() * settings.rate());
+
+        System.out.print(text);
+        Files.writeString(settings.output().resolve("report.txt"), text);
+        writeResult(settings.output(), misses);
+        System.out.printf("%nInforme en %s%n", settings.output());
+        return misses.isEmpty();
+    }
+
+    private static String row(String name, Histogram corrected, Histogram uncorrected, long errors) {
+        return String.format(Locale.ROOT, "%-15s %10d %8d %9.2f %9.2f %9.2f %9.2f %14.2f%n",
+                name, corrected.getTotalCount(), errors,
+                millis(corrected.getValueAtPercentile(50)), millis(corrected.getValueAtPercentile(99)),
+                millis(corrected.getValueAtPercentile(99.9)), millis(corrected.getMaxValue()),
+                millis(uncorrected.getValueAtPercentile(99)));
+    }
+
+    private static void checkLatency(StringBuilder text, List<String> misses, String name, Double limitMillis, long valueMicros) {
+        if (limitMillis != null) {
+            check(text, misses, String.format(Locale.ROOT, "%s <= %.1f ms: %.2f ms", name, limitMillis, millis(valueMicros)),
+                    millis(valueMicros) <= limitMillis);
+        }
+    }
+
+    private static void check(StringBuilder text, List<String> misses, String description, boolean met) {
+        text.append(met ? "  OK     " : "  FALLA  ").append(description).append(System.lineSeparator());
+        if (!met) {
+            misses.add(description);
+        }
+    }
+
+    private static void writeResult(Path output, List<String> misses) throws IOException {
+        Properties result = new Properties();
+        result.setProperty("passed", String.valueOf(misses.isEmpty()));
+        result.setProperty("misses", String.join("; ", misses));
+        try (Writer writer = Files.newBufferedWriter(output.resolve("result.properties"))) {
+            result.store(writer, "SLO de BookLoadGenerator");
+        }
+    }
+
+    private static int check(Path result) throws IOException {
+        if (!Files.exists(result)) {
+            System.err.println("No existe " + result + ": la prueba de carga no llegó a ejecutarse");
+            return 1;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(result)) {
+            properties.load(reader);
+        }
+        if (Boolean.parseBoolean(properties.getProperty("passed"))) {
+            return 0;
+        }
+        System.err.println("SLO incumplidos: " + properties.getProperty("misses"));
+        return 1;
+    }
+
+    private void awaitServer() throws InterruptedException {
+        HttpRequest health = HttpRequest.newBuilder(settings.url().resolve("/actuator/health")).GET().build();
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        while (true) {
+            try {
+                if (httpClient.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Aún arrancando
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("La aplicación no responde en " + settings.url());
+            }
+            Thread.sleep(500);
+        }
+    }
+
+    /**
+     * Inserta {@code --catalog-size} libros y recorre el listado para conocer los ids
+     * sobre los que leer, actualizar y borrar.
+     */
+    private void seed() throws IOException, InterruptedException {
+        for (int from = 0; from < settings.catalogSize(); from += 1_000) {
+            StringBuilder books = new StringBuilder("[");
+            for (int i = from; i < Math.min(from + 1_000, settings.catalogSize()); i++) {
+                books.append(i == from ? "" : ",").append(workload.newBookJson());
+            }
+            send(HttpRequest.newBuilder(settings.url().resolve("/books/bulk"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(books.append(']').toString()))
+                    .build());
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        String cursor = "";
+        do {
+            String page = send(HttpRequest.newBuilder(settings.url().resolve("/books?size=1000" + cursor)).GET().build());
+            JsonNode json = mapper.readTree(page);
+            json.path("books").forEach(book -> workload.knownIds.add(book.path("id").asLong()));
+            cursor = json.path("nextCursor").isNull() ? null : "&after=" + json.path("nextCursor").asLong();
+        } while (cursor != null);
+        System.out.printf("Catálogo listo: %d libros conocidos%n", workload.knownIds.size());
+    }
+
+    private String send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(request.method() + " " + request.uri() + " respondió "
+                    + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000d;
+    }
+
+    private static long megabytes(long bytes) {
+        return bytes < 0 ? -1 : bytes / (1024 * 1024);
+    }
+
+    private static final class OperationStats {
+
+        // En microsegundos; admiten escrituras concurrentes
+        private final Histogram corrected = new ConcurrentHistogram(HISTOGRAM_DIGITS);
+        private final Histogram uncorrected = new ConcurrentHistogram(HISTOGRAM_DIGITS);
+        private final LongAdder errors = new LongAdder();
+    }
+
+    /**
+     * Datos de las peticiones: títulos únicos por ejecución (título y autor no se pueden
+     * repetir) y los ids conocidos del catálogo.
+     */
+    static final class Workload {
+
+        private static final ObjectMapper MAPPER = new ObjectMapper();
+
+        private final String run = Long.toString(System.currentTimeMillis(), 36);
+        private final AtomicLong sequence = new AtomicLong();
+        private final KnownIds knownIds = new KnownIds();
+        private final int batchSize;
+        private final int pageSize;
+
+        Workload(int batchSize, int pageSize) {
+            this.batchSize = batchSize;
+            this.pageSize = pageSize;
+        }
+
+        String newBookJson() {
+            long n = sequence.incrementAndGet();
+            return "{\"title\":\"Carga " + run + " " + n + "\",\"author\":\"Autor " + (n % 1_000) + "\"}";
+        }
+
+        String newBooksJson() {
+            StringBuilder books = new StringBuilder("[");
+            for (int i = 0; i < batchSize; i++) {
+                books.append(i == 0 ? "" : ",").append(newBookJson());
+            }
+            return books.append(']').toString();
+        }
+
+        void created(String bookJson) {
+            try {
+                knownIds.add(MAPPER.readTree(bookJson).path("id").asLong());
+            } catch (IOException e) {
+                throw new IllegalStateException("Respuesta no válida: " + bookJson, e);
+            }
+        }
+
+        long knownId() {
+            return knownIds.random();
+        }
+
+        int pageSize() {
+            return pageSize;
+        }
+    }
+
+    /**
+     * Los últimos {@value #CAPACITY} ids conocidos, en un anillo sin bloqueos. Los borrados
+     * no se quitan: una lectura posterior recibe un 404, que cuenta como correcta.
+     */
+    private static final class KnownIds {
+
+        private static final int CAPACITY = 1 << 16;
+
+        private final AtomicLongArray ids = new AtomicLongArray(CAPACITY);
+        private final AtomicLong added = new AtomicLong();
+
+        void add(long id) {
+            ids.set((int) (added.getAndIncrement() & (CAPACITY - 1)), id);
+        }
+
+        int size() {
+            return (int) Math.min(added.get(), CAPACITY);
+        }
+
+        long random() {
+            int size = size();
+            return size == 0 ? 0 : ids.get(ThreadLocalRandom.current().nextInt(size));
+        }
+    }
+
+    /**
+     * Opciones de la línea de órdenes, todas con valor por defecto salvo los SLO de
+     * latencia, que solo se comprueban si se indican.
+     *
+     * @param url            aplicación bajo prueba ({@code http://localhost:8080})
+     * @param rate           peticiones por segundo (200)
+     * @param duration       tiempo de medida ({@code PT1M}); horas para una prueba de resistencia
+     * @param warmup         tiempo previo que no cuenta en el informe ({@code PT30S})
+     * @param reportInterval cada cuánto se escribe una fila de la evolución ({@code PT10S})
+     * @param mix            pesos de cada operación
+     * @param catalogSize    libros insertados antes de empezar (10000)
+     * @param batchSize      libros por petición de {@code saveBooks} (20)
+     * @param pageSize       libros por página de {@code getAllBooks} (100)
+     * @param maxInFlight    peticiones sin respuesta como mucho (1000)
+     * @param output         directorio del informe ({@code target/load})
+     * @param sloP50         p50 máximo en ms
+     * @param sloP99         p99 máximo en ms
+     * @param sloP999        p99.9 máximo en ms
+     * @param sloErrorRate   fracción máxima de errores (0.001)
+     * @param sloThroughput  fracción mínima del ritmo previsto que debe lograrse (0.95)
+     * @param fail           terminar con código 1 si se incumple algún SLO (true)
+     * @param check          solo comprobar un {@code result.properties} ya escrito
+     */
+    record Settings(URI url, double rate, Duration duration, Duration warmup, Duration reportInterval,
+                    BookLoadOperation.Mix mix, int catalogSize, int batchSize, int pageSize, int maxInFlight,
+                    Path output, Double sloP50, Double sloP99, Double sloP999, double sloErrorRate,
+                    double sloThroughput, boolean fail, Path check) {
+
+        static final String DEFAULT_MIX =
+                "getBookById=60,getAllBooks=10,saveBook=10,saveBooks=5,updateBook=10,deleteBookById=5";
+
+        static Settings parse(String[] args) {
+            Map<String, String> options = new HashMap<>();
+            for (String arg : args) {
+                if (arg.isBlank()) {
+                    continue;
+                }
+                int equals = arg.indexOf('=');
+                if (!arg.startsWith("--") || equals < 0) {
+                    throw new IllegalArgumentException("Se esperaba --nombre=valor: " + arg);
+                }
+                options.put(arg.substring(2, equals), arg.substring(equals + 1));
+            }
+            Settings settings = new Settings(
+                    URI.create(options.getOrDefault("url", "http://localhost:8080")),
+                    Double.parseDouble(options.getOrDefault("rate", "200")),
+                    Duration.parse(options.getOrDefault("duration", "PT1M")),
+                    Duration.parse(options.getOrDefault("warmup", "PT30S")),
+                    Duration.parse(options.getOrDefault("report-interval", "PT10S")),
+                    BookLoadOperation.Mix.parse(options.getOrDefault("mix", DEFAULT_MIX)),
+                    Integer.parseInt(options.getOrDefault("catalog-size", "10000")),
+                    Integer.parseInt(options.getOrDefault("batch-size", "20")),
+                    Integer.parseInt(options.getOrDefault("page-size", "100")),
+                    Integer.parseInt(options.getOrDefault("max-in-flight", "1000")),
+                    Path.of(options.getOrDefault("output", "target/load")),
+                    optional(options.get("slo.p50")),
+                    optional(options.get("slo.p99")),
+                    optional(options.get("slo.p99.9")),
+                    Double.parseDouble(options.getOrDefault("slo.error-rate", "0.001")),
+                    Double.parseDouble(options.getOrDefault("slo.throughput", "0.95")),
+                    Boolean.parseBoolean(options.getOrDefault("fail", "true")),
+                    options.containsKey("check") ? Path.of(options.get("check")) : null);
+            List<String> known = List.of("url", "rate", "duration", "warmup", "report-interval", "mix", "catalog-size",
+                    "batch-size", "page-size", "max-in-flight", "output", "slo.p50", "slo.p99", "slo.p99.9",
+                    "slo.error-rate", "slo.throughput", "fail", "check");
+            options.keySet().stream()
+                    .filter(name -> !known.contains(name))
+                    .findFirst()
+                    .ifPresent(name -> {
+                        throw new IllegalArgumentException("Opción desconocida: --" + name + " (válidas: " + known + ")");
+                    });
+            if (settings.rate() <= 0 || settings.maxInFlight() <= 0) {
+                throw new IllegalArgumentException("--rate y --max-in-flight deben ser mayores que cero");
+            }
+            return settings;
+        }
+
+        private static Double optional(String value) {
+            return value == null || value.isBlank() ? null : Double.valueOf(value);
+        }
+    }
+}
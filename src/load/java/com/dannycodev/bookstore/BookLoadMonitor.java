@@ -0,0 +1,72 @@
+package com.dannycodev.bookstore;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Lee de {@code /actuator/metrics} del servidor el heap usado, los datos vivos tras la
+ * última recolección completa y las pausas de GC acumuladas.
+ */
+final class BookLoadMonitor {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient httpClient;
+    private final URI base;
+
+    BookLoadMonitor(HttpClient httpClient, URI base) {
+        this.httpClient = httpClient;
+        this.base = base;
+    }
+
+    /**
+     * Estado del servidor en un instante. {@code gcPauseMillis} y {@code gcPauses} son
+     * acumulados desde el arranque; {@code gcMaxPauseMillis}, la mayor pausa reciente.
+     */
+    record Sample(long heapUsedBytes, long liveDataBytes, long gcPauses, double gcPauseMillis, double gcMaxPauseMillis) {
+
+        static final Sample UNKNOWN = new Sample(-1, -1, 0, 0, 0);
+    }
+
+    Sample sample() {
+        try {
+            JsonNode gcPause = metric("jvm.gc.pause");
+            return new Sample(
+                    (long) statistic(metric("jvm.memory.used?tag=area:heap"), "VALUE", -1),
+                    (long) statistic(metric("jvm.gc.live.data.size"), "VALUE", -1),
+                    (long) statistic(gcPause, "COUNT", 0),
+                    statistic(gcPause, "TOTAL_TIME", 0) * 1000,
+                    statistic(gcPause, "MAX", 0) * 1000);
+        } catch (IOException e) {
+            return Sample.UNKNOWN;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Sample.UNKNOWN;
+        }
+    }
+
+    // null si la métrica no existe todavía: jvm.gc.pause aparece con la primera pausa
+    private JsonNode metric(String name) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(base.resolve("/actuator/metrics/" + name)).GET().build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        return response.statusCode() == 200 ? MAPPER.readTree(response.body()) : null;
+    }
+
+    private static double statistic(JsonNode metric, String statistic, double missing) {
+        if (metric == null) {
+            return missing;
+        }
+        for (JsonNode measurement : metric.path("measurements")) {
+            if (statistic.equals(measurement.path("statistic").asText())) {
+                return measurement.path("value").asDouble();
+            }
+        }
+        return missing;
+    }
+}
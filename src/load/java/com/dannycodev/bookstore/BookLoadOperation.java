@@ -0,0 +1,157 @@
+package com.dannycodev.bookstore;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Operaciones de {@link BookService} que lanza {@link BookLoadGenerator}, cada una con la
+ * petición HTTP que la ejecuta. {@code saveBooks} va a {@code POST /books/bulk} y
+ * {@code getAllBooks} pide una página del listado por cursor, que es como la API expone
+ * el catálogo completo.
+ */
+enum BookLoadOperation {
+
+    SAVE_BOOK("saveBook") {
+        @Override
+        HttpRequest request(URI base, BookLoadGenerator.Workload workload) {
+            return json(base.resolve("/books")).POST(body(workload.newBookJson())).build();
+        }
+
+        @Override
+        boolean accept(HttpResponse<String> response, BookLoadGenerator.Workload workload) {
+            if (response.statusCode() != 201) {
+                return false;
+            }
+            workload.created(response.body());
+            return true;
+        }
+    },
+    SAVE_BOOKS("saveBooks") {
+        @Override
+        HttpRequest request(URI base, BookLoadGenerator.Workload workload) {
+            return json(base.resolve("/books/bulk")).POST(body(workload.newBooksJson())).build();
+        }
+    },
+    GET_BOOK_BY_ID("getBookById") {
+        @Override
+        HttpRequest request(URI base, BookLoadGenerator.Workload workload) {
+            return HttpRequest.newBuilder(base.resolve("/books/" + workload.knownId())).GET().build();
+        }
+    },
+    GET_ALL_BOOKS("getAllBooks") {
+        @Override
+        HttpRequest request(URI base, BookLoadGenerator.Workload workload) {
+            URI page = base.resolve("/books?after=" + workload.knownId() + "&size=" + workload.pageSize());
+            return HttpRequest.newBuilder(page).GET().build();
+        }
+    },
+    UPDATE_BOOK("updateBook") {
+        @Override
+        HttpRequest request(URI base, BookLoadGenerator.Workload workload) {
+            return json(base.resolve("/books/" + workload.knownId())).PUT(body(workload.newBookJson())).build();
+        }
+    },
+    DELETE_BOOK_BY_ID("deleteBookById") {
+        @Override
+        HttpRequest request(URI base, BookLoadGenerator.Workload workload) {
+            return HttpRequest.newBuilder(base.resolve("/books/" + workload.knownId())).DELETE().build();
+        }
+    };
+
+    private final String method;
+
+    BookLoadOperation(String method) {
+        this.method = method;
+    }
+
+    /**
+     * Nombre del método de {@link BookService}, el que se usa en {@code --mix}.
+     */
+    String method() {
+        return method;
+    }
+
+    abstract HttpRequest request(URI base, BookLoadGenerator.Workload workload);
+
+    /**
+     * Si la respuesta cuenta como correcta. Un 404 lo es: otra petición puede haber
+     * borrado el libro elegido.
+     */
+    boolean accept(HttpResponse<String> response, BookLoadGenerator.Workload workload) {
+        return response.statusCode() < 400 || response.statusCode() == 404;
+    }
+
+    static BookLoadOperation of(String method) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.method.equals(method))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Operación desconocida: " + method
+                        + " (válidas: " + Arrays.stream(values()).map(BookLoadOperation::method).toList() + ")"));
+    }
+
+    private static HttpRequest.Builder json(URI uri) {
+        return HttpRequest.newBuilder(uri).header("Content-Type", "application/json");
+    }
+
+    private static HttpRequest.BodyPublisher body(String json) {
+        return HttpRequest.BodyPublishers.ofString(json);
+    }
+
+    /**
+     * Elige operaciones al azar según los pesos de {@code --mix}, por ejemplo
+     * {@code getBookById=70,saveBook=10,updateBook=10,deleteBookById=10}.
+     */
+    static final class Mix {
+
+        private final BookLoadOperation[] operations;
+        private final int[] cumulative;
+
+        private Mix(BookLoadOperation[] operations, int[] cumulative) {
+            this.operations = operations;
+            this.cumulative = cumulative;
+        }
+
+        static Mix parse(String spec) {
+            String[] entries = spec.split(",");
+            BookLoadOperation[] operations = new BookLoadOperation[entries.length];
+            int[] cumulative = new int[entries.length];
+            int total = 0;
+            for (int i = 0; i < entries.length; i++) {
+                String[] parts = entries[i].trim().split("=");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Entrada de --mix no válida: " + entries[i]);
+                }
+                int weight = Integer.parseInt(parts[1].trim());
+                if (weight <= 0) {
+                    throw new IllegalArgumentException("El peso de " + parts[0] + " debe ser mayor que cero");
+                }
+                operations[i] = of(parts[0].trim());
+                total += weight;
+                cumulative[i] = total;
+            }
+            return new Mix(operations, cumulative);
+        }
+
+        BookLoadOperation next() {
+            int draw = ThreadLocalRandom.current().nextInt(cumulative[cumulative.length - 1]);
+            for (int i = 0; ; i++) {
+                if (draw < cumulative[i]) {
+                    return operations[i];
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < operations.length; i++) {
+                int weight = cumulative[i] - (i == 0 ? 0 : cumulative[i - 1]);
+                text.append(i == 0 ? "" : ",").append(operations[i].method).append('=').append(weight);
+            }
+            return text.toString();
+        }
+    }
+}
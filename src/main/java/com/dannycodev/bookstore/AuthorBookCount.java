@@ -0,0 +1,7 @@
+package com.dannycodev.bookstore;
+
+/**
+ * Número de libros de un autor.
+ */
+public record AuthorBookCount(String author, long books) {
+}
@@ -1,25 +1,44 @@
 package com.dannycodev.bookstore;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+@Table(indexes = @Index(name = "idx_book_author", columnList = "author"),
+        // Clave natural: título y autor, ya normalizados por BookValidator
+        uniqueConstraints = @UniqueConstraint(name = "uk_book_title_author", columnNames = {"title", "author"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Book {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @BookId
     private Long id;
 
     private String title;
     private String author;
+
+    /**
+     * Versión para el bloqueo optimista: Hibernate y las actualizaciones de
+     * {@link BookRepository} la incrementan en cada cambio. Las filas anteriores a
+     * esta columna la reciben a 0 al arrancar ({@link BookVersionBackfill}).
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    public Book(Long id, String title, String author) {
+        this(id, title, author, null);
+    }
 }
@@ -0,0 +1,145 @@
+package com.dannycodev.bookstore;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Índice en memoria autor -> ids de sus libros.
+ *
+ * {@link BookService} lo mantiene al día en cada escritura, de modo que contar los
+ * libros de un autor no depende del tamaño del catálogo. Mientras no se ha cargado
+ * por completo ({@link #markReady()}), o si se desactiva con
+ * {@code bookstore.author-index.enabled=false}, no responde y el servicio consulta
+ * la base de datos.
+ */
+@Component
+public class BookAuthorIndex {
+
+    private final boolean enabled;
+
+    // autor -> ids de sus libros
+    private final Map<String, Set<Long>> idsByAuthor = new HashMap<>();
+    // id -> autor, para saber de dónde retirar un libro al modificarlo o borrarlo
+    private final Map<Long, String> authorById = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    public BookAuthorIndex(@Value("${bookstore.author-index.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public void markReady() {
+        ready = true;
+    }
+
+    public void index(Book book) {
+        if (!enabled || book.getId() == null || book.getAuthor() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            unindex(book.getId());
+            idsByAuthor.computeIfAbsent(book.getAuthor(), a -> new HashSet<>()).add(book.getId());
+            authorById.put(book.getId(), book.getAuthor());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            unindex(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            idsByAuthor.clear();
+            authorById.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Número de libros del autor, o vacío si el índice aún no puede responder.
+     */
+    public OptionalLong count(String author) {
+        if (!isReady()) {
+            return OptionalLong.empty();
+        }
+        lock.readLock().lock();
+        try {
+            Set<Long> ids = idsByAuthor.get(author);
+            return OptionalLong.of(ids == null ? 0 : ids.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Los {@code limit} autores con más libros, o vacío si el índice aún no
+     * puede responder.
+     */
+    public Optional<List<AuthorBookCount>> topAuthors(int limit) {
+        if (!isReady()) {
+            return Optional.empty();
+        }
+        Comparator<AuthorBookCount> byBooks = Comparator.comparingLong(AuthorBookCount::books)
+                .thenComparing(AuthorBookCount::author, Comparator.reverseOrder());
+        PriorityQueue<AuthorBookCount> best = new PriorityQueue<>(byBooks);
+        lock.readLock().lock();
+        try {
+            idsByAuthor.forEach((author, ids) -> {
+                best.add(new AuthorBookCount(author, ids.size()));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<AuthorBookCount> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            result.add(0, best.poll());
+        }
+        return Optional.of(result);
+    }
+
+    private void unindex(Long id) {
+        String previous = authorById.remove(id);
+        if (previous == null) {
+            return;
+        }
+        Set<Long> ids = idsByAuthor.get(previous);
+        ids.remove(id);
+        if (ids.isEmpty()) {
+            idsByAuthor.remove(previous);
+        }
+    }
+}
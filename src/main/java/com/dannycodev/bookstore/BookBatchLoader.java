@@ -0,0 +1,170 @@
+package com.dannycodev.bookstore;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Junta en una sola consulta {@code IN} los ids que piden a la vez varias llamadas a
+ * {@link BookService#getBooksByIds(Collection)}.
+ *
+ * La primera llamada abre un lote; las que llegan durante {@code bookstore.multi-get.window}
+ * añaden sus ids al mismo lote, que se consulta al cerrarse la ventana o al llegar a
+ * {@code max-batch-size} ids. Cada llamada espera a sus lotes y se queda solo con sus libros.
+ * Con una ventana de cero cada llamada hace su propia consulta.
+ *
+ * Las consultas se hacen en un hilo virtual propio, fuera de la transacción y de la
+ * petición de quien abrió el lote, y siempre en el principal: lo que devuelven se guarda
+ * en {@link BookCache}, y una réplica con retraso podría devolver filas ya cambiadas.
+ */
+@Component
+public class BookBatchLoader {
+
+    private final BookRepository bookRepository;
+    private final Duration window;
+    private final int maxBatchSize;
+
+    private final Object lock = new Object();
+    // Lote que aún acepta ids; null si no hay ninguno abierto
+    private Batch open;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder requestedIds = new LongAdder();
+
+    public BookBatchLoader(BookRepository bookRepository,
+                           @Value("${bookstore.multi-get.window:2ms}") Duration window,
+                           @Value("${bookstore.multi-get.max-batch-size:500}") int maxBatchSize) {
+        if (window.isNegative() || maxBatchSize <= 0) {
+            throw new IllegalArgumentException("La ventana no puede ser negativa y max-batch-size debe ser mayor que cero");
+        }
+        this.bookRepository = bookRepository;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Libros con esos ids, por id; los que no existen no aparecen. Cada llamada recibe
+     * sus propias copias.
+     */
+    public Map<Long, Book> load(Collection<Long> ids) {
+        Set<Long> wanted = new LinkedHashSet<>(ids);
+        wanted.remove(null);
+        if (wanted.isEmpty()) {
+            return Map.of();
+        }
+        requestedIds.add(wanted.size());
+
+        List<Batch> joined = new ArrayList<>();
+        List<Batch> full = new ArrayList<>();
+        synchronized (lock) {
+            for (Long id : wanted) {
+                if (open == null) {
+                    open = new Batch();
+                    if (!window.isZero()) {
+                        closeLater(open);
+                    }
+                }
+                open.ids.add(id);
+                if (joined.isEmpty() || joined.get(joined.size() - 1) != open) {
+                    joined.add(open);
+                }
+                if (open.ids.size() >= maxBatchSize) {
+                    full.add(open);
+                    open = null;
+                }
+            }
+            if (window.isZero() && open != null) {
+                full.add(open);
+                open = null;
+            }
+        }
+        full.forEach(batch -> Thread.ofVirtual().name("book-multi-get").start(() -> execute(batch)));
+
+        Map<Long, Book> result = new HashMap<>();
+        for (Batch batch : joined) {
+            Map<Long, Book> found = join(batch.result);
+            for (Long id : wanted) {
+                Book book = found.get(id);
+                if (book != null) {
+                    result.putIfAbsent(id, book.toBuilder().build());
+                }
+            }
+        }
+        return result;
+    }
+
+    private void closeLater(Batch batch) {
+        Thread.ofVirtual().name("book-multi-get").start(() -> {
+            try {
+                Thread.sleep(window);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (lock) {
+                if (open == batch) {
+                    open = null;
+                }
+            }
+            execute(batch);
+        });
+    }
+
+    // Se llama al llenarse el lote y al acabar la ventana: solo la primera vez consulta
+    private void execute(Batch batch) {
+        if (!batch.started.compareAndSet(false, true)) {
+            return;
+        }
+        batches.increment();
+        try {
+            Map<Long, Book> found = new HashMap<>();
+            for (Book book : BookReplicaRoutingDataSource.onPrimary(() -> bookRepository.findAllById(batch.ids))) {
+                found.put(book.getId(), book);
+            }
+            batch.result.complete(found);
+        } catch (RuntimeException e) {
+            batch.result.completeExceptionally(e);
+        }
+    }
+
+    private static Map<Long, Book> join(CompletableFuture<Map<Long, Book>> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Consultas {@code IN} lanzadas.
+     */
+    public long batchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * Ids pedidos, sin contar repetidos dentro de una misma llamada.
+     */
+    public long requestedIdCount() {
+        return requestedIds.sum();
+    }
+
+    private static final class Batch {
+
+        // Solo se modifica con el lock, antes de que empiece la consulta
+        private final Set<Long> ids = new LinkedHashSet<>();
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final CompletableFuture<Map<Long, Book>> result = new CompletableFuture<>();
+    }
+}
@@ -0,0 +1,192 @@
+package com.dannycodev.bookstore;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Carga masiva de libros usando lotes JDBC reales.
+ *
+ * Como el id se genera antes del INSERT ({@link BookIdGenerator}), Hibernate agrupa
+ * las inserciones según {@code hibernate.jdbc.batch_size}. Los libros se persisten
+ * en bloques de {@code chunkSize} y entre bloque y bloque se vacía el contexto de
+ * persistencia, de modo que la memoria no crece con el tamaño de la carga.
+ * Las altas de cada bloque quedan en {@link BookChangeLog}.
+ *
+ * {@link #upsert(List, Consumer)} hace lo mismo, pero sin duplicar libros que ya
+ * existen con el mismo título y autor (la clave natural de {@link Book}), y
+ * {@link #ingestSkippingDuplicates(List, IntConsumer)} los descarta en lugar de
+ * dejar que la clave única haga fallar la carga.
+ *
+ * Es un {@code @Repository} para que los errores de JPA lleguen traducidos a
+ * {@code DataAccessException}, como desde {@link BookRepository}.
+ */
+@Slf4j
+@Repository
+public class BookBulkIngester {
+
+    private final EntityManager entityManager;
+    private final BookRepository bookRepository;
+    private final BookChangeLog bookChangeLog;
+    private final int chunkSize;
+
+    public BookBulkIngester(EntityManager entityManager, BookRepository bookRepository, BookChangeLog bookChangeLog,
+                            @Value("${bookstore.ingest.chunk-size:1000}") int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor que cero");
+        }
+        this.entityManager = entityManager;
+        this.bookRepository = bookRepository;
+        this.bookChangeLog = bookChangeLog;
+        this.chunkSize = chunkSize;
+    }
+
+    @Transactional
+    public BulkIngestReport ingest(List<Book> books) {
+        long start = System.nanoTime();
+        int chunks = 0;
+
+        for (int from = 0; from < books.size(); from += chunkSize) {
+            List<Book> chunk = books.subList(from, Math.min(from + chunkSize, books.size()));
+            for (Book book : chunk) {
+                // La carga siempre inserta: el id y la versión que vengan de fuera se ignoran
+                book.setId(null);
+                book.setVersion(null);
+                entityManager.persist(book);
+            }
+            chunks++;
+
+            // Un INSERT ... SELECT por bloque registra las altas en el outbox
+            entityManager.flush();
+            bookChangeLog.recordSaved(BookChangeType.CREATED, chunk);
+
+            // Entre lotes vaciamos el contexto para que la memoria se mantenga estable
+            entityManager.clear();
+        }
+
+        BulkIngestReport report = new BulkIngestReport(books.size(), chunks, System.nanoTime() - start);
+        log.info("Carga masiva: {} libros en {} lotes ({} filas/s)",
+                report.rows(), report.chunks(), Math.round(report.rowsPerSecond()));
+        return report;
+    }
+
+    /**
+     * Como {@link #ingest(List)}, pero antes de insertar cada bloque averigua con una
+     * consulta IN, igual que {@link #upsert(List, Consumer)}, qué libros existen ya.
+     * Esos, y los repetidos dentro de la entrada, no se insertan: se notifican a
+     * {@code onDuplicate} con su posición en {@code books}. Los libros deben venir ya
+     * normalizados; el informe cuenta solo los insertados.
+     */
+    @Transactional
+    public BulkIngestReport ingestSkippingDuplicates(List<Book> books, IntConsumer onDuplicate) {
+        long start = System.nanoTime();
+        int chunks = 0;
+        int rows = 0;
+        Set<NaturalKey> inserted = new HashSet<>();
+
+        for (int from = 0; from < books.size(); from += chunkSize) {
+            List<Book> chunk = books.subList(from, Math.min(from + chunkSize, books.size()));
+            Set<NaturalKey> existing = new HashSet<>();
+            bookRepository.findByTitleInAndAuthorIn(
+                            chunk.stream().map(Book::getTitle).distinct().toList(),
+                            chunk.stream().map(Book::getAuthor).distinct().toList())
+                    .forEach(book -> existing.add(NaturalKey.of(book)));
+
+            List<Book> nuevos = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                Book book = chunk.get(i);
+                NaturalKey key = NaturalKey.of(book);
+                if (existing.contains(key) || !inserted.add(key)) {
+                    onDuplicate.accept(from + i);
+                    continue;
+                }
+                book.setId(null);
+                book.setVersion(null);
+                entityManager.persist(book);
+                nuevos.add(book);
+            }
+            rows += nuevos.size();
+            chunks++;
+
+            entityManager.flush();
+            bookChangeLog.recordSaved(BookChangeType.CREATED, nuevos);
+            entityManager.clear();
+        }
+
+        BulkIngestReport report = new BulkIngestReport(rows, chunks, System.nanoTime() - start);
+        log.info("Carga masiva: {} libros en {} lotes, {} ya existentes ({} filas/s)",
+                report.rows(), report.chunks(), books.size() - rows, Math.round(report.rowsPerSecond()));
+        return report;
+    }
+
+    /**
+     * Inserta solo los libros cuya clave natural (título, autor) no existe todavía,
+     * con una única consulta IN por bloque para averiguar cuáles son y el resto igual
+     * que {@link #ingest(List)}. Los repetidos dentro de la entrada se insertan una vez.
+     * Los libros deben venir ya normalizados.
+     *
+     * Un libro que ya existe no se modifica: título y autor son su clave y no tiene
+     * más campos. Se devuelve el que está guardado. {@code onInsert} recibe los libros
+     * insertados en cada bloque.
+     */
+    @Transactional
+    public BookUpsertResult upsert(List<Book> books, Consumer<List<Book>> onInsert) {
+        long start = System.nanoTime();
+        List<Book> result = new ArrayList<>(books.size());
+        Map<NaturalKey, Book> inserted = new HashMap<>();
+
+        for (int from = 0; from < books.size(); from += chunkSize) {
+            List<Book> chunk = books.subList(from, Math.min(from + chunkSize, books.size()));
+            Map<NaturalKey, Book> existing = new HashMap<>();
+            bookRepository.findByTitleInAndAuthorIn(
+                            chunk.stream().map(Book::getTitle).distinct().toList(),
+                            chunk.stream().map(Book::getAuthor).distinct().toList())
+                    .forEach(book -> existing.put(NaturalKey.of(book), book));
+
+            List<Book> nuevos = new ArrayList<>();
+            for (Book book : chunk) {
+                NaturalKey key = NaturalKey.of(book);
+                Book known = existing.getOrDefault(key, inserted.get(key));
+                if (known != null) {
+                    result.add(known);
+                    continue;
+                }
+                book.setId(null);
+                book.setVersion(null);
+                entityManager.persist(book);
+                inserted.put(key, book);
+                nuevos.add(book);
+                result.add(book);
+            }
+
+            entityManager.flush();
+            bookChangeLog.recordSaved(BookChangeType.CREATED, nuevos);
+            onInsert.accept(nuevos);
+            entityManager.clear();
+        }
+
+        BookUpsertResult upsert = new BookUpsertResult(result, inserted.size(), System.nanoTime() - start);
+        log.info("Alta sin duplicados: {} libros, {} insertados y {} ya existentes",
+                result.size(), upsert.inserted(), upsert.existing());
+        return upsert;
+    }
+
+    record NaturalKey(String title, String author) {
+
+        static NaturalKey of(Book book) {
+            return new NaturalKey(book.getTitle(), book.getAuthor());
+        }
+    }
+}
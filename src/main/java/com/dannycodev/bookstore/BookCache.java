@@ -0,0 +1,202 @@
+package com.dannycodev.bookstore;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caché de lectura para {@link BookService#getBookById(Long)}, limitada por
+ * tamaño y por tiempo de vida.
+ *
+ * La carga desde el repositorio es atómica por id: una invalidación que llega
+ * mientras se está leyendo un libro espera a que termine la lectura y luego
+ * la descarta, de modo que después de una escritura nunca se sirve el valor viejo.
+ * Se guardan y devuelven copias para que nadie modifique el libro cacheado.
+ *
+ * Las lecturas simultáneas de un mismo id que no está en caché comparten una sola
+ * consulta, también cuando el libro no existe (esos no se cachean). Quien llega
+ * después de una invalidación no se suma a la consulta en curso, sino que lanza otra.
+ *
+ * Publica aciertos, fallos, expulsiones y tamaño como métricas {@code cache.*}
+ * con la etiqueta {@code cache=books}.
+ */
+@Component
+public class BookCache implements MeterBinder {
+
+    private final Cache<Long, Book> cache;
+    // Consultas en curso por id; vacío si el libro no existe
+    private final ConcurrentHashMap<Long, CompletableFuture<Optional<Book>>> loading = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+    // Cuenta cada descarte; putAll no guarda lo leído antes del último
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public BookCache(@Value("${bookstore.cache.maximum-size:10000}") long maximumSize,
+                     @Value("${bookstore.cache.ttl:10m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<Book> get(Long id, Function<Long, Optional<Book>> loader) {
+        // containsKey no cuenta en las estadísticas: cada lectura es un acierto o un fallo, no los dos
+        if (cache.asMap().containsKey(id)) {
+            Book cached = cache.getIfPresent(id);
+            if (cached != null) {
+                return Optional.of(copy(cached));
+            }
+        }
+        CompletableFuture<Optional<Book>> load = new CompletableFuture<>();
+        CompletableFuture<Optional<Book>> running = loading.putIfAbsent(id, load);
+        if (running != null) {
+            coalesced.increment();
+            return join(running).map(BookCache::copy);
+        }
+        try {
+            // Los ids inexistentes no se cachean: el loader devuelve null y Caffeine no guarda nada
+            Optional<Book> loaded = Optional.ofNullable(
+                    cache.get(id, key -> loader.apply(key).map(BookCache::copy).orElse(null)));
+            load.complete(loaded);
+            return loaded.map(BookCache::copy);
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(id, load);
+        }
+    }
+
+    private static Optional<Book> join(CompletableFuture<Optional<Book>> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            // La misma excepción que recibe quien lanzó la consulta
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Descarta el libro de la caché. Si hay una transacción en curso se vuelve a
+     * descartar tras el commit, por si otro hilo lo cargó con el valor anterior
+     * mientras la escritura aún no era visible.
+     */
+    public void invalidate(Long id) {
+        if (id == null) {
+            return;
+        }
+        discard(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    discard(id);
+                }
+            });
+        }
+    }
+
+    // Las lecturas que lleguen desde ahora no se suman a una consulta anterior
+    private void discard(Long id) {
+        invalidations.incrementAndGet();
+        loading.remove(id);
+        cache.invalidate(id);
+    }
+
+    /**
+     * Marca que hay que tomar antes de leer libros que se guardarán con
+     * {@link #putAll(Map, long)}.
+     */
+    public long invalidationMark() {
+        return invalidations.get();
+    }
+
+    /**
+     * Guarda libros leídos fuera de {@link #get(Long, Function)}, salvo que desde
+     * {@code mark} se haya descartado algo: lo leído podría ser anterior a esa escritura.
+     */
+    public void putAll(Map<Long, Book> books, long mark) {
+        if (books.isEmpty() || invalidations.get() != mark) {
+            return;
+        }
+        Map<Long, Book> copies = new HashMap<>();
+        books.forEach((id, book) -> copies.put(id, copy(book)));
+        cache.putAll(copies);
+        // Un descarte entre la comprobación y el putAll: se deshace lo guardado
+        if (invalidations.get() != mark) {
+            copies.forEach((id, book) -> cache.asMap().remove(id, book));
+        }
+    }
+
+    /**
+     * Consulta la caché sin ir al repositorio si el libro no está.
+     */
+    public Optional<Book> getIfPresent(Long id) {
+        return Optional.ofNullable(cache.getIfPresent(id)).map(BookCache::copy);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "books");
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        loading.clear();
+        cache.invalidateAll();
+    }
+
+    /**
+     * Ejecuta el mantenimiento pendiente (desalojos por tamaño o tiempo).
+     */
+    public void cleanUp() {
+        cache.cleanUp();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long hitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long missCount() {
+        return cache.stats().missCount();
+    }
+
+    public long evictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    /**
+     * Lecturas que se sumaron a una consulta ya en curso en lugar de lanzar la suya.
+     */
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    private static Book copy(Book book) {
+        return book.toBuilder().build();
+    }
+}
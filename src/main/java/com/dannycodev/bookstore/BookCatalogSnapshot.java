@@ -0,0 +1,294 @@
+package com.dannycodev.bookstore;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Copia del catálogo para servir lecturas sin ir a la base de datos ni crear
+ * entidades: {@link BookService} responde desde aquí {@code getBookById}, los listados
+ * y las vistas cuando {@link #isReady()}. Se activa con {@code bookstore.snapshot.enabled=true}.
+ *
+ * La base es un {@link BookSnapshot} inmutable fuera del heap. Las escrituras hechas a
+ * través de {@link BookService} o {@link BookReactiveService} se anotan, tras el commit,
+ * en un mapa de cambios pendientes que se consulta antes que la base. Al llegar a
+ * {@code max-pending} cambios, un hilo aparte los funde con la base en una instantánea nueva, copiando los bytes de
+ * los libros que no cambian, y la publica de una vez; las lecturas en curso terminan con
+ * la anterior. La base completa se carga al arrancar, en la misma pasada que los índices
+ * de búsqueda.
+ *
+ * Como los índices, no ve las escrituras de otras instancias.
+ */
+@Slf4j
+@Component
+public class BookCatalogSnapshot {
+
+    private static final Optional<Book> DELETED = Optional.empty();
+
+    private final boolean enabled;
+    private final int maxPending;
+
+    // Cambios confirmados que aún no están en la base; vacío significa borrado
+    private final ConcurrentSkipListMap<Long, Optional<Book>> pending = new ConcurrentSkipListMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    // Una sola escritura de cambios y una sola publicación de la base a la vez
+    private final Object writeLock = new Object();
+    private final Object publishLock = new Object();
+    private volatile BookSnapshot snapshot = BookSnapshot.EMPTY;
+    private volatile boolean loading;
+    private volatile boolean ready;
+
+    public BookCatalogSnapshot(@Value("${bookstore.snapshot.enabled:false}") boolean enabled,
+                               @Value("${bookstore.snapshot.max-pending:1000}") int maxPending) {
+        if (maxPending <= 0) {
+            throw new IllegalArgumentException("max-pending debe ser mayor que cero");
+        }
+        this.enabled = enabled;
+        this.maxPending = maxPending;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Libros en la base, sin contar los cambios pendientes.
+     */
+    public int size() {
+        return snapshot.size();
+    }
+
+    public long offHeapBytes() {
+        return snapshot.offHeapBytes();
+    }
+
+    public int pendingChanges() {
+        return pendingCount.get();
+    }
+
+    /**
+     * Empieza a cargar la base. Los libros deben llegar en orden de id; hasta
+     * {@link Loader#publish()} se sigue sirviendo la base anterior.
+     */
+    public Loader load() {
+        if (!enabled) {
+            return new Loader(null);
+        }
+        loading = true;
+        return new Loader(new BookSnapshot.Builder(snapshot.size()));
+    }
+
+    /**
+     * Anota un alta o una actualización ya confirmada. Sin versión (actualización
+     * incondicional) se toma la anterior más uno, como hace el UPDATE.
+     *
+     * Las confirmaciones de dos escrituras del mismo libro pueden llegar en otro orden
+     * que sus commits: se ignora la que trae una versión anterior a la ya anotada, y
+     * también la que llega después del borrado del libro.
+     */
+    public void put(Book book) {
+        if (!enabled || book.getId() == null) {
+            return;
+        }
+        Book copy = book.toBuilder().build();
+        synchronized (writeLock) {
+            Optional<Book> change = pending.get(copy.getId());
+            if (change != null && change.isEmpty()) {
+                return;
+            }
+            Long current = find(copy.getId()).map(Book::getVersion).orElse(null);
+            if (copy.getVersion() == null) {
+                copy.setVersion(current == null ? null : current + 1);
+            } else if (current != null && current > copy.getVersion()) {
+                return;
+            }
+            record(copy.getId(), Optional.of(copy));
+        }
+    }
+
+    public void remove(Long id) {
+        if (!enabled || id == null) {
+            return;
+        }
+        synchronized (writeLock) {
+            record(id, DELETED);
+        }
+    }
+
+    private void record(Long id, Optional<Book> change) {
+        if (pending.put(id, change) == null && pendingCount.incrementAndGet() >= maxPending) {
+            compactInBackground();
+        }
+    }
+
+    public Optional<Book> find(long id) {
+        // Primero los cambios y después la base: se quitan de pendientes
+        // solo cuando la base que los incluye ya está publicada
+        Optional<Book> change = pending.get(id);
+        if (change != null) {
+            return change.map(book -> book.toBuilder().build());
+        }
+        BookSnapshot current = snapshot;
+        int index = current.indexOf(id);
+        return index < 0 ? Optional.empty() : Optional.of(current.bookAt(index));
+    }
+
+    public Optional<BookView> findView(long id) {
+        Optional<Book> change = pending.get(id);
+        if (change != null) {
+            return change.map(BookView::of);
+        }
+        BookSnapshot current = snapshot;
+        int index = current.indexOf(id);
+        return index < 0 ? Optional.empty() : Optional.of(current.viewAt(index));
+    }
+
+    /**
+     * Hasta {@code limit} libros con id mayor que {@code afterId}, en orden de id.
+     */
+    public List<Book> books(long afterId, int limit) {
+        return read(afterId, limit, BookSnapshot::bookAt, book -> book.toBuilder().build());
+    }
+
+    public List<BookView> views(long afterId, int limit) {
+        return read(afterId, limit, BookSnapshot::viewAt, BookView::of);
+    }
+
+    /**
+     * Recorre a la vez la base y los cambios pendientes, los dos ordenados por id. Si
+     * mientras tanto se publica otra base, vuelve a empezar con ella.
+     */
+    private <T> List<T> read(long afterId, int limit, SlotReader<T> fromSnapshot, Function<Book, T> fromPending) {
+        while (true) {
+            BookSnapshot current = snapshot;
+            Iterator<Map.Entry<Long, Optional<Book>>> changes = pending.tailMap(afterId, false).entrySet().iterator();
+            Map.Entry<Long, Optional<Book>> change = changes.hasNext() ? changes.next() : null;
+            int index = current.indexAfter(afterId);
+            List<T> result = new ArrayList<>(Math.min(limit, current.size() - index + pendingCount.get()));
+            while (result.size() < limit && (index < current.size() || change != null)) {
+                long id = index < current.size() ? current.idAt(index) : Long.MAX_VALUE;
+                if (change != null && change.getKey() <= id) {
+                    if (change.getKey() == id) {
+                        // El cambio sustituye al libro de la base
+                        index++;
+                    }
+                    change.getValue().map(fromPending).ifPresent(result::add);
+                    change = changes.hasNext() ? changes.next() : null;
+                } else {
+                    result.add(fromSnapshot.read(current, index++));
+                }
+            }
+            if (current == snapshot) {
+                return result;
+            }
+        }
+    }
+
+    private void compactInBackground() {
+        if (ready && !loading && compacting.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("book-snapshot").start(() -> {
+                try {
+                    compact();
+                } catch (RuntimeException e) {
+                    log.warn("No se pudo compactar la instantánea del catálogo", e);
+                } finally {
+                    compacting.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Funde los cambios pendientes con la base y publica el resultado.
+     */
+    void compact() {
+        synchronized (publishLock) {
+            if (loading) {
+                return;
+            }
+            BookSnapshot current = snapshot;
+            List<Map.Entry<Long, Optional<Book>>> changes = new ArrayList<>(pending.entrySet());
+            BookSnapshot.Builder builder = new BookSnapshot.Builder(current.size() + changes.size());
+            int index = 0;
+            for (Map.Entry<Long, Optional<Book>> change : changes) {
+                long id = change.getKey();
+                for (; index < current.size() && current.idAt(index) < id; index++) {
+                    builder.add(current, index);
+                }
+                if (index < current.size() && current.idAt(index) == id) {
+                    index++;
+                }
+                change.getValue().ifPresent(builder::add);
+            }
+            for (; index < current.size(); index++) {
+                builder.add(current, index);
+            }
+            snapshot = builder.build();
+            // Solo los que no han vuelto a cambiar mientras tanto
+            for (Map.Entry<Long, Optional<Book>> change : changes) {
+                if (pending.remove(change.getKey(), change.getValue())) {
+                    pendingCount.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Carga de la base completa, en una sola pasada por el catálogo.
+     */
+    public final class Loader {
+
+        private final BookSnapshot.Builder builder;
+
+        private Loader(BookSnapshot.Builder builder) {
+            this.builder = builder;
+        }
+
+        public void add(Book book) {
+            if (builder != null) {
+                builder.add(book);
+            }
+        }
+
+        /**
+         * Publica la base cargada. Los cambios pendientes se mantienen: pueden ser
+         * posteriores a lo que se leyó.
+         */
+        public void publish() {
+            if (builder == null) {
+                return;
+            }
+            synchronized (publishLock) {
+                snapshot = builder.build();
+                loading = false;
+                ready = true;
+            }
+            log.info("Instantánea del catálogo: {} libros en {} KiB fuera del heap",
+                    snapshot.size(), snapshot.offHeapBytes() / 1024);
+            if (pendingCount.get() >= maxPending) {
+                compactInBackground();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface SlotReader<T> {
+        T read(BookSnapshot snapshot, int index);
+    }
+}
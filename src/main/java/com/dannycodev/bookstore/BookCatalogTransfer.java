@@ -0,0 +1,184 @@
+package com.dannycodev.bookstore;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Exportación e importación del catálogo completo en NDJSON: un libro por línea,
+ * {@code {"id":1,"title":"...","author":"..."}}.
+ *
+ * La exportación recorre la base de datos en streaming ({@link BookRepository#streamAllViews()})
+ * y escribe cada fila en cuanto llega, sin crear entidades ni listas. La importación
+ * lee el fichero por un {@link FileChannel}, agrupa los libros en bloques de
+ * {@code bookstore.ingest.chunk-size} y los carga con {@link BookService#importBooks(List)}.
+ * En ambos sentidos la memoria usada depende del tamaño del bloque, no del catálogo.
+ *
+ * Cada bloque importado se confirma por separado y los ids del fichero se ignoran:
+ * la base de datos de destino asigna los suyos. Los libros que ya están en el
+ * destino se descartan como duplicados, así que reimportar una exportación no falla.
+ */
+@Slf4j
+@Component
+public class BookCatalogTransfer {
+
+    static final int MAX_REPORTED_REJECTIONS = 1000;
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final BookRepository bookRepository;
+    private final BookService bookService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final JsonFactory jsonFactory;
+    private final ObjectReader nodeReader;
+    private final ObjectReader bookReader;
+    private final int chunkSize;
+
+    public BookCatalogTransfer(BookRepository bookRepository,
+                               BookService bookService,
+                               PlatformTransactionManager transactionManager,
+                               ObjectMapper objectMapper,
+                               @Value("${bookstore.ingest.chunk-size:1000}") int chunkSize) {
+        this.bookRepository = bookRepository;
+        this.bookService = bookService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.jsonFactory = objectMapper.getFactory();
+        this.nodeReader = objectMapper.readerFor(JsonNode.class);
+        this.bookReader = objectMapper.readerFor(Book.class);
+        this.chunkSize = chunkSize;
+    }
+
+    public BookTransferReport exportTo(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            return exportTo(Channels.newOutputStream(channel));
+        }
+    }
+
+    /**
+     * Escribe el catálogo en {@code out}, que no se cierra.
+     */
+    public BookTransferReport exportTo(OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        long rows;
+        try {
+            rows = readOnlyTransaction.execute(status -> {
+                try (Stream<BookView> books = bookRepository.streamAllViews();
+                     JsonGenerator generator = jsonFactory.createGenerator(new BufferedOutputStream(out, BUFFER_SIZE))
+                             .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                    // Entre libros solo va el salto de línea de write(), sin el espacio por defecto
+                    generator.setRootValueSeparator(null);
+                    long written = 0;
+                    for (BookView book : (Iterable<BookView>) books::iterator) {
+                        write(generator, book);
+                        written++;
+                    }
+                    return written;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        BookTransferReport report = new BookTransferReport(rows, 0, List.of(), System.nanoTime() - start);
+        log.info("Exportación: {} libros ({} filas/s)", report.rows(), Math.round(report.rowsPerSecond()));
+        return report;
+    }
+
+    public BookTransferReport importFrom(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return importFrom(Channels.newInputStream(channel));
+        }
+    }
+
+    /**
+     * Carga los libros de {@code in}, que no se cierra. Los inválidos, y las líneas
+     * que no son un objeto ({@code null}, cadenas, números...), se descartan y se
+     * informan con su posición en el fichero (empezando en 0).
+     */
+    public BookTransferReport importFrom(InputStream in) throws IOException {
+        long start = System.nanoTime();
+        long rows = 0;
+        long rejected = 0;
+        long position = 0;
+        List<BookRejection> rejections = new ArrayList<>();
+        List<Book> chunk = new ArrayList<>(chunkSize);
+
+        try (JsonParser parser = jsonFactory.createParser(new BufferedInputStream(in, BUFFER_SIZE))
+                .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+             MappingIterator<JsonNode> lines = nodeReader.readValues(parser)) {
+            while (lines.hasNextValue()) {
+                JsonNode line = lines.nextValue();
+                // Sin libro, la validación lo descarta como inválido
+                Book book = null;
+                if (line.isObject()) {
+                    book = bookReader.readValue(line);
+                    book.setId(null);
+                }
+                chunk.add(book);
+                position++;
+                if (chunk.size() == chunkSize || !lines.hasNextValue()) {
+                    BookImportResult result = bookService.importBooks(chunk);
+                    rows += result.accepted();
+                    rejected += collect(result, position - chunk.size(), rejections);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("El libro en la posición " + position + " no es JSON válido", e);
+        }
+
+        BookTransferReport report = new BookTransferReport(rows, rejected, rejections, System.nanoTime() - start);
+        log.info("Importación: {} libros cargados, {} descartados ({} filas/s)",
+                report.rows(), report.rejected(), Math.round(report.rowsPerSecond()));
+        return report;
+    }
+
+    private static void write(JsonGenerator generator, BookView book) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", book.id());
+        generator.writeStringField("title", book.title());
+        generator.writeStringField("author", book.author());
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private static int collect(BookImportResult result, long chunkStart, List<BookRejection> rejections) {
+        for (BookRejection rejection : result.rejections()) {
+            if (rejections.size() == MAX_REPORTED_REJECTIONS) {
+                break;
+            }
+            rejections.add(new BookRejection(Math.toIntExact(chunkStart + rejection.index()), rejection.violations()));
+        }
+        return result.rejected();
+    }
+}
@@ -0,0 +1,44 @@
+package com.dannycodev.bookstore;
+
+import java.time.Instant;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Un cambio de un libro en la tabla outbox {@code book_change} (ver {@link BookChangeLog}).
+ *
+ * {@code seq} crece con cada cambio registrado. En altas y actualizaciones lleva
+ * el estado del libro tras el cambio; en los borrados solo el id.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+
+    // Texto y no ENUM nativo, para que cualquier consumidor pueda leer la tabla
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    private BookChangeType type;
+
+    private Long bookId;
+    private String title;
+    private String author;
+    private Long bookVersion;
+    private Instant occurredAt;
+}
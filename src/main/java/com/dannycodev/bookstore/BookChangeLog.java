@@ -0,0 +1,77 @@
+package com.dannycodev.bookstore;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Outbox transaccional de cambios de libros: cada escritura de {@link BookService}
+ * (y de {@link BookReactiveService}) registra aquí sus cambios en la misma transacción,
+ * así que un cambio queda registrado si y solo si se confirma.
+ *
+ * Los sistemas que necesitan seguir el catálogo leen con {@link #changesSince(long, int)}
+ * solo lo nuevo, en lugar de recorrer la tabla entera en cada ciclo.
+ *
+ * La secuencia se asigna al insertar, no al confirmar: una transacción que aún no ha
+ * confirmado deja un hueco que otra posterior puede saltarse. Por eso la lectura se
+ * detiene en el primer hueco hasta que pasa {@code settle-time}; a partir de ahí se
+ * da por hecho que fue una transacción revertida. Ese tiempo debe superar la
+ * duración de la transacción de escritura más larga.
+ */
+@Component
+public class BookChangeLog {
+
+    // Ids por sentencia INSERT ... SELECT
+    static final int MAX_IDS_PER_INSERT = 1000;
+
+    private final BookChangeRepository bookChangeRepository;
+    private final Duration settleTime;
+
+    public BookChangeLog(BookChangeRepository bookChangeRepository,
+                         @Value("${bookstore.changes.settle-time:5s}") Duration settleTime) {
+        this.bookChangeRepository = bookChangeRepository;
+        this.settleTime = settleTime;
+    }
+
+    /**
+     * Registra el estado actual de los libros, ya escritos en esta transacción.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSaved(BookChangeType type, List<Book> books) {
+        List<Long> ids = books.stream().map(Book::getId).toList();
+        Instant now = Instant.now();
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_INSERT) {
+            bookChangeRepository.insertFromBooks(type, ids.subList(from, Math.min(from + MAX_IDS_PER_INSERT, ids.size())), now);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(Long id) {
+        bookChangeRepository.save(new BookChange(null, BookChangeType.DELETED, id, null, null, null, Instant.now()));
+    }
+
+    /**
+     * Hasta {@code limit} cambios posteriores a {@code sequence}, en orden.
+     */
+    @Transactional(readOnly = true)
+    public BookChangePage changesSince(long sequence, int limit) {
+        Instant settled = Instant.now().minus(settleTime);
+        List<BookChange> changes = new ArrayList<>(limit);
+        long last = sequence;
+        for (BookChange change : bookChangeRepository.findBySeqGreaterThanOrderBySeqAsc(sequence, Limit.of(limit))) {
+            if (change.getSeq() != last + 1 && change.getOccurredAt().isAfter(settled)) {
+                break;
+            }
+            changes.add(change);
+            last = change.getSeq();
+        }
+        return new BookChangePage(changes, last);
+    }
+}
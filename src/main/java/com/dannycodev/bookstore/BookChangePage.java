@@ -0,0 +1,11 @@
+package com.dannycodev.bookstore;
+
+import java.util.List;
+
+/**
+ * Cambios obtenidos con {@link BookService#getChangesSince(long, int)}.
+ * {@code nextSequence} es la secuencia a pasar en la siguiente llamada; si no hay
+ * cambios nuevos, la misma que se pidió.
+ */
+public record BookChangePage(List<BookChange> changes, long nextSequence) {
+}
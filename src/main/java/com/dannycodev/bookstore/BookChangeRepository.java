@@ -0,0 +1,25 @@
+package com.dannycodev.bookstore;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface BookChangeRepository extends JpaRepository<BookChange, Long> {
+
+    List<BookChange> findBySeqGreaterThanOrderBySeqAsc(Long seq, Limit limit);
+
+    /**
+     * Registra un cambio por cada libro de {@code ids} con su estado actual, en un
+     * único INSERT ... SELECT.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("insert into BookChange (type, bookId, title, author, bookVersion, occurredAt) "
+            + "select :type, b.id, b.title, b.author, b.version, :occurredAt from Book b "
+            + "where b.id in :ids order by b.id")
+    int insertFromBooks(BookChangeType type, Collection<Long> ids, Instant occurredAt);
+}
@@ -0,0 +1,7 @@
+package com.dannycodev.bookstore;
+
+public enum BookChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,11 @@
+package com.dannycodev.bookstore;
+
+import java.util.List;
+
+/**
+ * Resultado de un bloque de {@link BookParallelWriter}: su posición en la entrada,
+ * si quedó confirmado y, si no, los libros rechazados o el error al escribirlo.
+ */
+public record BookChunkResult(int chunk, int from, int rows, boolean committed,
+                              List<BookRejection> rejections, String error, long elapsedNanos) {
+}
@@ -0,0 +1,154 @@
+package com.dannycodev.bookstore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * API REST sobre {@link BookService}.
+ *
+ * Las peticiones se atienden en hilos virtuales ({@code spring.threads.virtual.enabled}),
+ * así que las llamadas JDBC bloqueantes no agotan un pool de hilos de plataforma.
+ * La latencia de cada endpoint queda en la métrica {@code http.server.requests}.
+ */
+@RestController
+@RequestMapping("/books")
+public class BookController {
+
+    private final BookService bookService;
+    private final BookCatalogTransfer bookCatalogTransfer;
+
+    public BookController(BookService bookService, BookCatalogTransfer bookCatalogTransfer) {
+        this.bookService = bookService;
+        this.bookCatalogTransfer = bookCatalogTransfer;
+    }
+
+    @GetMapping
+    public BookPage<BookView> listBooks(@RequestParam(required = false) Long after,
+                                        @RequestParam(defaultValue = "100") int size) {
+        return bookService.getBookViewsPage(after, size);
+    }
+
+    /**
+     * Cambios posteriores a la secuencia {@code since}, para sincronizar de forma incremental.
+     */
+    @GetMapping("/changes")
+    public BookChangePage getChanges(@RequestParam(defaultValue = "0") long since,
+                                     @RequestParam(defaultValue = "100") int size) {
+        return bookService.getChangesSince(since, size);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Book> getBook(@PathVariable Long id) {
+        return ResponseEntity.of(bookService.getBookById(id));
+    }
+
+    /**
+     * Varios libros en una petición, por ejemplo {@code /books/by-ids?ids=1,2,3}; los que
+     * no existen se omiten.
+     */
+    @GetMapping("/by-ids")
+    public List<Book> getBooks(@RequestParam List<Long> ids) {
+        return bookService.getBooksByIds(ids);
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Book createBook(@RequestBody Book book) {
+        return bookService.saveBook(book);
+    }
+
+    @PostMapping("/bulk")
+    @ResponseStatus(HttpStatus.CREATED)
+    public BulkIngestReport createBooks(@RequestBody List<Book> books) {
+        return bookService.ingestBooks(books);
+    }
+
+    /**
+     * Alta idempotente: solo inserta los libros cuyo título y autor no existen ya.
+     */
+    @PostMapping("/upsert")
+    public BookUpsertResult upsertBooks(@RequestBody List<Book> books) {
+        return bookService.upsertBooks(books);
+    }
+
+    /**
+     * Carga en paralelo por bloques para lotes muy grandes (ver {@link BookParallelWriter}).
+     */
+    @PostMapping("/bulk/parallel")
+    public BookParallelWriteReport createBooksInParallel(@RequestBody List<Book> books,
+                                                         @RequestParam(defaultValue = "ALL_OR_NOTHING") BookWriteMode mode) {
+        return bookService.saveBooksInParallel(books, mode);
+    }
+
+    @PostMapping("/import")
+    public BookImportResult importBooks(@RequestBody List<Book> books) {
+        return bookService.importBooks(books);
+    }
+
+    /**
+     * Catálogo completo en NDJSON, escrito a medida que se lee de la base de datos.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody exportBooks() {
+        return bookCatalogTransfer::exportTo;
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public BookTransferReport importCatalog(InputStream body) throws IOException {
+        return bookCatalogTransfer.importFrom(body);
+    }
+
+    @PutMapping("/{id}")
+    public Book updateBook(@PathVariable Long id, @RequestBody Book book) {
+        return bookService.updateBook(id, book);
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void deleteBook(@PathVariable Long id) {
+        bookService.deleteBookById(id);
+    }
+
+    @GetMapping("/search")
+    public List<Book> searchBooks(@RequestParam("q") String query,
+                                  @RequestParam(defaultValue = "20") int limit) {
+        return bookService.searchBooks(query, limit);
+    }
+
+    @GetMapping("/suggestions")
+    public List<String> suggestTerms(@RequestParam String prefix,
+                                     @RequestParam(defaultValue = "10") int limit) {
+        return bookService.suggestTerms(prefix, limit);
+    }
+
+    @GetMapping("/by-author")
+    public List<Book> getBooksByAuthor(@RequestParam String author) {
+        return bookService.getBooksByAuthor(author);
+    }
+
+    @GetMapping("/authors")
+    public List<AuthorBookCount> getTopAuthors(@RequestParam(defaultValue = "20") int limit) {
+        return bookService.getTopAuthors(limit);
+    }
+
+    @GetMapping("/authors/count")
+    public long countBooksByAuthor(@RequestParam String author) {
+        return bookService.countBooksByAuthor(author);
+    }
+}
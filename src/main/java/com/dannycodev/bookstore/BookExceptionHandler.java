@@ -0,0 +1,42 @@
+package com.dannycodev.bookstore;
+
+import java.util.Locale;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Traducción de errores a respuestas HTTP, común a {@link BookController} y
+ * {@link BookReactiveController}.
+ */
+@RestControllerAdvice(assignableTypes = {BookController.class, BookReactiveController.class})
+public class BookExceptionHandler {
+
+    @ExceptionHandler(BookNotFoundException.class)
+    public ProblemDetail handleNotFound(BookNotFoundException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ProblemDetail handleConflict(OptimisticLockingFailureException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ProblemDetail handleIntegrityViolation(DataIntegrityViolationException ex) {
+        String message = String.valueOf(ex.getMessage()).toLowerCase(Locale.ROOT);
+        String detail = message.contains("uk_book_title_author")
+                ? "Ya existe un libro con ese título y autor"
+                : "El libro no cumple las restricciones de la base de datos";
+        return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, detail);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ProblemDetail handleInvalid(IllegalArgumentException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+}
@@ -0,0 +1,19 @@
+package com.dannycodev.bookstore;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+/**
+ * Marca el id de {@link Book} para que lo genere {@link BookIdGenerator}.
+ */
+@IdGeneratorType(BookIdGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface BookId {
+}
@@ -0,0 +1,82 @@
+package com.dannycodev.bookstore;
+
+import java.util.Map;
+import java.util.Properties;
+
+import org.hibernate.MappingException;
+import org.hibernate.boot.model.relational.Database;
+import org.hibernate.boot.model.relational.SqlStringGenerationContext;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * Generador de ids de {@link Book} configurable por propiedades.
+ *
+ * Con ambas estrategias el id se conoce antes del INSERT, así que Hibernate
+ * puede agrupar las inserciones en lotes JDBC:
+ * <ul>
+ *   <li>{@code sequence} (por defecto): secuencia {@code book_seq} con optimizador
+ *       pooled; se pide un valor a la base de datos cada {@code allocation-size} inserciones.</li>
+ *   <li>{@code time-ordered}: ids de 64 bits generados en la aplicación y
+ *       ordenados por tiempo ({@link TimeOrderedIdGenerator}), sin consultar la base de datos.</li>
+ * </ul>
+ *
+ * Se configura con {@code spring.jpa.properties.bookstore.id.*}, porque Hibernate
+ * solo ve las propiedades que Spring le pasa con ese prefijo.
+ */
+public class BookIdGenerator implements IdentifierGenerator {
+
+    static final String STRATEGY = "bookstore.id.strategy";
+    static final String ALLOCATION_SIZE = "bookstore.id.allocation-size";
+    static final String NODE_ID = "bookstore.id.node-id";
+
+    static final String SEQUENCE_NAME = "book_seq";
+    static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    private IdentifierGenerator delegate;
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        Map<String, Object> settings = serviceRegistry.requireService(ConfigurationService.class).getSettings();
+        String strategy = String.valueOf(settings.getOrDefault(STRATEGY, "sequence"));
+
+        switch (strategy) {
+            case "sequence" -> {
+                Properties sequence = new Properties();
+                sequence.putAll(parameters);
+                sequence.setProperty(SequenceStyleGenerator.SEQUENCE_PARAM, SEQUENCE_NAME);
+                sequence.setProperty(SequenceStyleGenerator.INCREMENT_PARAM,
+                        String.valueOf(settings.getOrDefault(ALLOCATION_SIZE, DEFAULT_ALLOCATION_SIZE)));
+                sequence.setProperty(SequenceStyleGenerator.OPT_PARAM, "pooled");
+                delegate = new SequenceStyleGenerator();
+                delegate.configure(type, sequence, serviceRegistry);
+            }
+            case "time-ordered" -> delegate = new TimeOrderedIdGenerator(
+                    Integer.parseInt(String.valueOf(settings.getOrDefault(NODE_ID, 0))));
+            default -> throw new MappingException("Estrategia de id desconocida para Book: " + strategy);
+        }
+    }
+
+    @Override
+    public void registerExportables(Database database) {
+        delegate.registerExportables(database);
+    }
+
+    @Override
+    public void initialize(SqlStringGenerationContext context) {
+        delegate.initialize(context);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return delegate.generate(session, object);
+    }
+
+    boolean usesSequence() {
+        return delegate instanceof SequenceStyleGenerator;
+    }
+}
@@ -0,0 +1,67 @@
+package com.dannycodev.bookstore;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compatibilidad con tablas creadas cuando el id de {@link Book} era IDENTITY.
+ *
+ * Al arrancar comprueba que {@code book_seq} vaya por delante del mayor id
+ * existente y, si no es así, la reinicia justo después. Solo la adelanta: nunca
+ * la hace retroceder, para no chocar con bloques ya reservados por otras instancias.
+ *
+ * Siempre consume un valor al arrancar. Así el primer valor que recibe Hibernate nunca
+ * es el inicial de la secuencia, y el optimizador pooled no usa su caso especial para
+ * el primer bloque ({@code [1, segundo valor]}), que podría solaparse con los bloques
+ * que reserva {@link BookReactiveIdAllocator}.
+ *
+ * Nadie depende de este bean, así que no se deja para más tarde aunque el arranque
+ * sea perezoso (perfil {@code fast}): tiene que haber corrido antes de la primera alta.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+public class BookIdSequenceAligner implements InitializingBean {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final String strategy;
+    private final int allocationSize;
+
+    public BookIdSequenceAligner(JdbcTemplate jdbcTemplate,
+                                 EntityManagerFactory entityManagerFactory,
+                                 @Value("${spring.jpa.properties.bookstore.id.strategy:sequence}") String strategy,
+                                 @Value("${spring.jpa.properties.bookstore.id.allocation-size:50}") int allocationSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.strategy = strategy;
+        this.allocationSize = allocationSize;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!"sequence".equals(strategy)) {
+            return;
+        }
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        Long next = jdbcTemplate.queryForObject(
+                dialect.getSequenceSupport().getSequenceNextValString(BookIdGenerator.SEQUENCE_NAME), Long.class);
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from book", Long.class);
+        // Con el optimizador pooled, el valor leído es el extremo superior de un bloque
+        // de allocationSize ids: todo el bloque debe quedar por encima del mayor id
+        if (maxId != null && next != null && next - allocationSize < maxId) {
+            long restart = maxId + allocationSize;
+            jdbcTemplate.execute("alter sequence " + BookIdGenerator.SEQUENCE_NAME + " restart with " + restart);
+            log.info("Secuencia {} reiniciada en {} para no chocar con los ids existentes",
+                    BookIdGenerator.SEQUENCE_NAME, restart);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.dannycodev.bookstore;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Resultado de {@link BookService#importBooks(List)}: la carga de los libros
+ * válidos y la lista de los rechazados.
+ */
+public record BookImportResult(BulkIngestReport report, List<BookRejection> rejections) {
+
+    @JsonProperty
+    public int accepted() {
+        return report.rows();
+    }
+
+    @JsonProperty
+    public int rejected() {
+        return rejections.size();
+    }
+}
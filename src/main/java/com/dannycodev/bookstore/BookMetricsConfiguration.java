@@ -0,0 +1,83 @@
+package com.dannycodev.bookstore;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Instrumentación propia de la aplicación, publicada en {@code /actuator/metrics}
+ * y {@code /actuator/prometheus}.
+ *
+ * <ul>
+ *   <li>{@code bookstore.service}: un timer por método de {@link BookService}.</li>
+ *   <li>{@code spring.data.repository.invocations}: llamadas a {@link BookRepository}
+ *       (lo configura Spring Boot).</li>
+ *   <li>{@code hibernate.*}: sentencias preparadas, consultas, inserciones y flushes,
+ *       con {@code hibernate.generate_statistics=true}. Muchas
+ *       {@code hibernate.statements} por cada llamada al servicio delatan un N+1; la
+ *       relación entre {@code hibernate.entities.inserts} y las sentencias muestra
+ *       si los lotes JDBC se están agrupando.</li>
+ *   <li>{@code cache.*} ({@code cache=books}): la caché de {@link BookCache}.</li>
+ *   <li>{@code bookstore.cache.coalesced}: lecturas de {@link BookCache} que esperaron a
+ *       una consulta ya en curso en lugar de lanzar la suya.</li>
+ *   <li>{@code bookstore.multi-get.*}: consultas {@code IN} de {@link BookBatchLoader} y
+ *       ids pedidos; su cociente es el tamaño medio de lote.</li>
+ *   <li>{@code bookstore.search.index.books}: libros en {@link BookSearchIndex}.</li>
+ *   <li>{@code bookstore.snapshot.*}: libros, bytes fuera del heap y cambios pendientes
+ *       de {@link BookCatalogSnapshot}.</li>
+ * </ul>
+ */
+@Configuration(proxyBeanMethods = false)
+public class BookMetricsConfiguration {
+
+    /**
+     * Hace efectivas las anotaciones {@code @Timed} de los beans.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public MeterBinder bookSearchIndexMetrics(BookSearchIndex bookSearchIndex) {
+        return registry -> Gauge.builder("bookstore.search.index.books", bookSearchIndex, BookSearchIndex::size)
+                .description("Libros en el índice de búsqueda")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder bookLookupMetrics(BookCache bookCache, BookBatchLoader bookBatchLoader) {
+        return registry -> {
+            FunctionCounter.builder("bookstore.cache.coalesced", bookCache, BookCache::coalescedCount)
+                    .description("Lecturas por id que compartieron una consulta en curso")
+                    .register(registry);
+            FunctionCounter.builder("bookstore.multi-get.batches", bookBatchLoader, BookBatchLoader::batchCount)
+                    .description("Consultas IN de las lecturas por varios ids")
+                    .register(registry);
+            FunctionCounter.builder("bookstore.multi-get.ids", bookBatchLoader, BookBatchLoader::requestedIdCount)
+                    .description("Ids pedidos en lecturas por varios ids")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder bookCatalogSnapshotMetrics(BookCatalogSnapshot bookCatalogSnapshot) {
+        return registry -> {
+            Gauge.builder("bookstore.snapshot.books", bookCatalogSnapshot, BookCatalogSnapshot::size)
+                    .description("Libros en la instantánea del catálogo")
+                    .register(registry);
+            Gauge.builder("bookstore.snapshot.bytes", bookCatalogSnapshot, BookCatalogSnapshot::offHeapBytes)
+                    .description("Memoria fuera del heap de la instantánea del catálogo")
+                    .baseUnit("bytes")
+                    .register(registry);
+            Gauge.builder("bookstore.snapshot.pending", bookCatalogSnapshot, BookCatalogSnapshot::pendingChanges)
+                    .description("Cambios aún no fundidos en la instantánea del catálogo")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.dannycodev.bookstore;
+
+/**
+ * El libro pedido no existe. Extiende {@link IllegalArgumentException} para
+ * que quien ya capturaba esa excepción siga funcionando igual.
+ */
+public class BookNotFoundException extends IllegalArgumentException {
+
+    public BookNotFoundException(String message) {
+        super(message);
+    }
+}
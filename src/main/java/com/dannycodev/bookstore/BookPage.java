@@ -0,0 +1,10 @@
+package com.dannycodev.bookstore;
+
+import java.util.List;
+
+/**
+ * Página de libros obtenida por cursor. {@code nextCursor} es el id a pasar
+ * en la siguiente llamada, o {@code null} si ya no quedan libros.
+ */
+public record BookPage<T>(List<T> books, Long nextCursor) {
+}
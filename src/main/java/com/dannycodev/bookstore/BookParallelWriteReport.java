@@ -0,0 +1,29 @@
+package com.dannycodev.bookstore;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Resumen de {@link BookService#saveBooksInParallel(List, BookWriteMode)}, con el
+ * resultado de cada bloque.
+ */
+public record BookParallelWriteReport(BookWriteMode mode, int rows, List<BookChunkResult> chunks, long elapsedNanos) {
+
+    @JsonProperty
+    public int committedRows() {
+        return chunks.stream().filter(BookChunkResult::committed).mapToInt(BookChunkResult::rows).sum();
+    }
+
+    @JsonProperty
+    public boolean allCommitted() {
+        return chunks.stream().allMatch(BookChunkResult::committed);
+    }
+
+    public double rowsPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return committedRows() * 1_000_000_000d / elapsedNanos;
+    }
+}
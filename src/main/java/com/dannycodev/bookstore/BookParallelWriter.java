@@ -0,0 +1,284 @@
+package com.dannycodev.bookstore;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Escritura en paralelo de lotes muy grandes de libros.
+ *
+ * La entrada se parte en bloques de {@code chunk-size}. Los bloques se validan y
+ * normalizan en paralelo en el {@link ForkJoinPool} común y después {@code threads}
+ * hilos los insertan a la vez, cada uno con su conexión del pool, a través de
+ * {@link BookBulkIngester} (lotes JDBC, contexto de persistencia vaciado entre bloques
+ * y altas registradas en {@link BookChangeLog}).
+ *
+ * Con {@link BookWriteMode#PER_CHUNK} cada bloque va en su propia transacción. Con
+ * {@link BookWriteMode#ALL_OR_NOTHING} cada hilo escribe todos sus bloques en una
+ * transacción y no la confirma hasta que los demás han terminado de escribir; si
+ * alguno falló, todos revierten. Solo queda parcial si falla la propia confirmación
+ * de un hilo cuando otro ya confirmó, y el informe lo refleja. En este modo las
+ * transacciones siguen abiertas durante toda la carga, así que
+ * {@code bookstore.changes.settle-time} debe cubrir esa duración.
+ *
+ * Un libro repetido (mismo título y autor) en dos bloques haría que un hilo se quedara
+ * esperando en la clave única a que el otro confirme, mientras ese otro espera a todos
+ * los demás: en modo todo o nada se rechaza el lote antes de escribir. Para bloqueos con
+ * otras escrituras, nadie espera más de {@code commit-timeout} a los demás; pasado ese
+ * tiempo todos revierten.
+ *
+ * {@code threads} debe ser menor que el tamaño del pool de conexiones.
+ */
+@Slf4j
+@Component
+public class BookParallelWriter {
+
+    private final BookBulkIngester bookBulkIngester;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int threads;
+    private final Duration commitTimeout;
+
+    public BookParallelWriter(BookBulkIngester bookBulkIngester,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${bookstore.parallel-write.chunk-size:5000}") int chunkSize,
+                              @Value("${bookstore.parallel-write.threads:4}") int threads,
+                              @Value("${bookstore.parallel-write.commit-timeout:2m}") Duration commitTimeout) {
+        if (chunkSize <= 0 || threads <= 0) {
+            throw new IllegalArgumentException("El tamaño de bloque y el número de hilos deben ser mayores que cero");
+        }
+        if (commitTimeout.isNegative() || commitTimeout.isZero()) {
+            throw new IllegalArgumentException("commit-timeout debe ser mayor que cero");
+        }
+        this.bookBulkIngester = bookBulkIngester;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.threads = threads;
+        this.commitTimeout = commitTimeout;
+    }
+
+    /**
+     * Escribe {@code books} y llama a {@code onCommit} con los libros de cada bloque
+     * que queda confirmado.
+     */
+    public BookParallelWriteReport write(List<Book> books, BookWriteMode mode, Consumer<List<Book>> onCommit) {
+        long start = System.nanoTime();
+        List<Chunk> chunks = new ArrayList<>();
+        for (int from = 0; from < books.size(); from += chunkSize) {
+            chunks.add(new Chunk(chunks.size(), from, books.subList(from, Math.min(from + chunkSize, books.size()))));
+        }
+
+        ForkJoinPool.commonPool().invoke(new Validation(chunks, 0, chunks.size()));
+        if (mode == BookWriteMode.ALL_OR_NOTHING) {
+            chunks.stream()
+                    .flatMap(chunk -> chunk.rejections.stream())
+                    .findFirst()
+                    .ifPresent(rejection -> {
+                        throw new IllegalArgumentException("El libro en la posición " + rejection.index()
+                                + " no es válido: " + rejection.messages().get(0));
+                    });
+            rejectDuplicates(books);
+        }
+
+        int workers = Math.min(threads, chunks.size());
+        AtomicInteger next = new AtomicInteger();
+        CountDownLatch written = new CountDownLatch(workers);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        // Lo fija el primer hilo que decide; los demás lo acatan
+        AtomicReference<Boolean> commit = new AtomicReference<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(Math.max(workers, 1),
+                Thread.ofPlatform().name("book-writer-", 0).factory())) {
+            for (int i = 0; i < workers; i++) {
+                executor.execute(mode == BookWriteMode.ALL_OR_NOTHING
+                        ? () -> writeAllOrNothing(chunks, next, written, failure, commit)
+                        : () -> writePerChunk(chunks, next));
+            }
+        }
+
+        List<BookChunkResult> results = new ArrayList<>(chunks.size());
+        for (Chunk chunk : chunks) {
+            if (chunk.committed) {
+                onCommit.accept(chunk.books);
+            }
+            results.add(chunk.result());
+        }
+        BookParallelWriteReport report = new BookParallelWriteReport(mode, books.size(), results, System.nanoTime() - start);
+        log.info("Escritura en paralelo ({}): {} de {} libros en {} bloques con {} hilos ({} filas/s)",
+                mode, report.committedRows(), report.rows(), chunks.size(), workers, Math.round(report.rowsPerSecond()));
+        return report;
+    }
+
+    private void writePerChunk(List<Chunk> chunks, AtomicInteger next) {
+        for (int i = next.getAndIncrement(); i < chunks.size(); i = next.getAndIncrement()) {
+            Chunk chunk = chunks.get(i);
+            if (!chunk.rejections.isEmpty()) {
+                chunk.error = "El bloque tiene libros inválidos";
+                continue;
+            }
+            long start = System.nanoTime();
+            try {
+                // ingest abre su propia transacción
+                bookBulkIngester.ingest(chunk.books);
+                chunk.committed = true;
+            } catch (RuntimeException e) {
+                chunk.error = e.getMessage();
+            }
+            chunk.elapsedNanos = System.nanoTime() - start;
+        }
+    }
+
+    // Ya normalizados: la misma clave que uk_book_title_author
+    private static void rejectDuplicates(List<Book> books) {
+        Map<BookBulkIngester.NaturalKey, Integer> positions = new HashMap<>();
+        for (int i = 0; i < books.size(); i++) {
+            Integer first = positions.putIfAbsent(BookBulkIngester.NaturalKey.of(books.get(i)), i);
+            if (first != null) {
+                throw new IllegalArgumentException("El libro en la posición " + i
+                        + " repite el título y el autor del de la posición " + first);
+            }
+        }
+    }
+
+    private void writeAllOrNothing(List<Chunk> chunks, AtomicInteger next, CountDownLatch written,
+                                   AtomicReference<RuntimeException> failure, AtomicReference<Boolean> commit) {
+        List<Chunk> mine = new ArrayList<>();
+        boolean[] arrived = {false};
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try {
+                    for (int i = next.getAndIncrement(); i < chunks.size() && failure.get() == null; i = next.getAndIncrement()) {
+                        Chunk chunk = chunks.get(i);
+                        mine.add(chunk);
+                        long start = System.nanoTime();
+                        try {
+                            bookBulkIngester.ingest(chunk.books);
+                        } catch (RuntimeException e) {
+                            chunk.error = e.getMessage();
+                            throw e;
+                        } finally {
+                            chunk.elapsedNanos = System.nanoTime() - start;
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    arrived[0] = true;
+                    written.countDown();
+                }
+                // Nadie confirma hasta que todos han escrito sus bloques
+                if (awaitUninterruptibly(written, commitTimeout)) {
+                    commit.compareAndSet(null, failure.get() == null);
+                } else if (commit.compareAndSet(null, false)) {
+                    failure.compareAndSet(null, new TransactionTimedOutException(
+                            "Otro hilo no terminó de escribir en " + commitTimeout));
+                }
+                if (!commit.get()) {
+                    status.setRollbackOnly();
+                }
+            });
+            if (commit.get()) {
+                mine.forEach(chunk -> chunk.committed = true);
+            }
+        } catch (RuntimeException e) {
+            // No se pudo abrir o confirmar la transacción de este hilo
+            failure.compareAndSet(null, e);
+            mine.forEach(chunk -> chunk.error = e.getMessage());
+            if (!arrived[0]) {
+                written.countDown();
+            }
+        }
+    }
+
+    /**
+     * Devuelve {@code false} si se agota {@code timeout} antes de que el contador llegue a cero.
+     */
+    private static boolean awaitUninterruptibly(CountDownLatch latch, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return latch.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static final class Chunk {
+
+        final int index;
+        final int from;
+        final List<Book> books;
+        List<BookRejection> rejections = List.of();
+        volatile boolean committed;
+        volatile String error;
+        volatile long elapsedNanos;
+
+        Chunk(int index, int from, List<Book> books) {
+            this.index = index;
+            this.from = from;
+            this.books = books;
+        }
+
+        BookChunkResult result() {
+            return new BookChunkResult(index, from, books.size(), committed, rejections, error, elapsedNanos);
+        }
+    }
+
+    /**
+     * Valida y normaliza los bloques {@code [from, to)}, partiendo el rango por la mitad
+     * hasta quedarse con un solo bloque.
+     */
+    private static final class Validation extends RecursiveAction {
+
+        private final List<Chunk> chunks;
+        private final int from;
+        private final int to;
+
+        Validation(List<Chunk> chunks, int from, int to) {
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Validation(chunks, from, middle), new Validation(chunks, middle, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                Chunk chunk = chunks.get(i);
+                chunk.rejections = BookValidator.validateAll(chunk.books).rejections().stream()
+                        .map(rejection -> new BookRejection(chunk.from + rejection.index(), rejection.violations()))
+                        .toList();
+            }
+        }
+    }
+}
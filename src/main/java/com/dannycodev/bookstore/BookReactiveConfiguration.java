@@ -0,0 +1,103 @@
+package com.dannycodev.bookstore;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Conexiones R2DBC para {@link BookReactiveService}, contra la misma base de datos
+ * que usa JPA.
+ *
+ * La URL R2DBC se deriva de {@code spring.datasource.url} (se puede fijar con
+ * {@code bookstore.reactive.url}), así las dos variantes ven las mismas tablas.
+ *
+ * Cuando hay un {@link ConnectionFactory}, Spring Boot deja de configurar el
+ * {@code DataSource} y puede quedarse con un solo gestor de transacciones, así que
+ * aquí se declaran los dos lados: el {@code DataSource} de Hikari con las propiedades
+ * {@code spring.datasource.*} de siempre y el gestor JPA como principal, de modo que
+ * {@code @Transactional} y {@code TransactionTemplate} sigan usando JPA. Con réplicas de
+ * lectura ({@link BookReplicaConfiguration}) ese {@code DataSource} es el del principal.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class BookReactiveConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+                                                    ObjectProvider<TransactionManagerCustomizers> customizers) {
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        customizers.ifAvailable(c -> c.customize(transactionManager));
+        return transactionManager;
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool connectionFactory(DataSourceProperties properties,
+                                            @Value("${bookstore.reactive.url:}") String url,
+                                            @Value("${bookstore.reactive.pool-size:10}") int poolSize) {
+        String r2dbcUrl = url.isBlank() ? toR2dbcUrl(properties.determineUrl()) : url;
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(r2dbcUrl).mutate();
+        String username = properties.determineUsername();
+        if (username != null && !username.isEmpty()) {
+            options.option(ConnectionFactoryOptions.USER, username);
+        }
+        String password = properties.determinePassword();
+        if (password != null && !password.isEmpty()) {
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                .name("bookstore-reactive")
+                .initialSize(1)
+                .maxSize(poolSize)
+                .build());
+    }
+
+    @Bean
+    public R2dbcTransactionManager reactiveTransactionManager(ConnectionFactory connectionFactory) {
+        return new R2dbcTransactionManager(connectionFactory);
+    }
+
+    /**
+     * {@code jdbc:h2:mem:nombre;OPCIONES} pasa a {@code r2dbc:h2:mem:///nombre?options=OPCIONES};
+     * para el resto de bases de datos basta con cambiar el prefijo.
+     */
+    static String toR2dbcUrl(String jdbcUrl) {
+        if (jdbcUrl == null || !jdbcUrl.startsWith("jdbc:")) {
+            throw new IllegalStateException("No se puede derivar la URL R2DBC de " + jdbcUrl
+                    + "; configure bookstore.reactive.url");
+        }
+        for (String mode : new String[] {"mem", "file"}) {
+            String prefix = "jdbc:h2:" + mode + ":";
+            if (jdbcUrl.startsWith(prefix)) {
+                String database = jdbcUrl.substring(prefix.length());
+                int options = database.indexOf(';');
+                String r2dbc = "r2dbc:h2:" + mode + ":///" + (options < 0 ? database : database.substring(0, options));
+                return options < 0 ? r2dbc : r2dbc + "?options=" + database.substring(options + 1);
+            }
+        }
+        return "r2dbc:" + jdbcUrl.substring("jdbc:".length());
+    }
+}
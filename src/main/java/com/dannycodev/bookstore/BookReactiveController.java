@@ -0,0 +1,68 @@
+package com.dannycodev.bookstore;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * API REST sobre {@link BookReactiveService}, con las mismas operaciones que
+ * {@link BookController} bajo {@code /reactive/books}. El listado se envía en
+ * NDJSON a medida que llegan las filas.
+ */
+@RestController
+@RequestMapping("/reactive/books")
+public class BookReactiveController {
+
+    private final BookReactiveService bookReactiveService;
+
+    public BookReactiveController(BookReactiveService bookReactiveService) {
+        this.bookReactiveService = bookReactiveService;
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Book> listBooks() {
+        return bookReactiveService.getAllBooks();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<Book> getBook(@PathVariable Long id) {
+        return bookReactiveService.getBookById(id)
+                .switchIfEmpty(Mono.error(new BookNotFoundException("El libro no existe")));
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Book> createBook(@RequestBody Book book) {
+        return bookReactiveService.saveBook(book);
+    }
+
+    @PostMapping("/bulk")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Flux<Book> createBooks(@RequestBody List<Book> books) {
+        return bookReactiveService.saveBooks(books);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<Book> updateBook(@PathVariable Long id, @RequestBody Book book) {
+        return bookReactiveService.updateBook(id, book);
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteBook(@PathVariable Long id) {
+        return bookReactiveService.deleteBookById(id);
+    }
+}
@@ -0,0 +1,107 @@
+package com.dannycodev.bookstore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Ids para las altas de {@link BookReactiveService}, sacados de la misma secuencia
+ * {@code book_seq} que usa JPA y con el mismo reparto que el optimizador pooled de
+ * Hibernate: cada valor {@code v} de la secuencia reserva los ids
+ * {@code (v - allocationSize, v]}. Por eso las dos variantes pueden insertar a la vez
+ * sin chocar. Lo que sobra de un bloque se guarda para las siguientes altas.
+ */
+@Component
+class BookReactiveIdAllocator {
+
+    private final DatabaseClient databaseClient;
+    private final EntityManagerFactory entityManagerFactory;
+    private final String strategy;
+    private final int allocationSize;
+
+    private volatile String nextValueSql;
+    // Bloque en curso: ids desde next hasta hi, ambos incluidos
+    private long next = 1;
+    private long hi = 0;
+
+    BookReactiveIdAllocator(DatabaseClient databaseClient,
+                            EntityManagerFactory entityManagerFactory,
+                            @Value("${spring.jpa.properties.bookstore.id.strategy:sequence}") String strategy,
+                            @Value("${spring.jpa.properties.bookstore.id.allocation-size:50}") int allocationSize) {
+        this.databaseClient = databaseClient;
+        this.entityManagerFactory = entityManagerFactory;
+        this.strategy = strategy;
+        this.allocationSize = allocationSize;
+    }
+
+    Mono<List<Long>> allocate(int count) {
+        if (!"sequence".equals(strategy)) {
+            return Mono.error(new IllegalStateException(
+                    "Las altas reactivas necesitan bookstore.id.strategy=sequence, no " + strategy));
+        }
+        List<Long> ids = new ArrayList<>(count);
+        takeCached(ids, count);
+        int missing = count - ids.size();
+        if (missing == 0) {
+            return Mono.just(ids);
+        }
+        int blocks = (missing + allocationSize - 1) / allocationSize;
+        return Flux.range(0, blocks)
+                .concatMap(i -> nextValue())
+                .collectList()
+                .map(values -> {
+                    long leftoverFrom = 0;
+                    long leftoverTo = -1;
+                    for (long value : values) {
+                        for (long id = Math.max(1, value - allocationSize + 1); id <= value; id++) {
+                            if (ids.size() < count) {
+                                ids.add(id);
+                            } else {
+                                leftoverFrom = id;
+                                leftoverTo = value;
+                                break;
+                            }
+                        }
+                    }
+                    keep(leftoverFrom, leftoverTo);
+                    return ids;
+                });
+    }
+
+    private synchronized void takeCached(List<Long> ids, int count) {
+        while (ids.size() < count && next <= hi) {
+            ids.add(next++);
+        }
+    }
+
+    // Si otra alta ya dejó un bloque a medias, el sobrante se descarta: solo deja un hueco
+    private synchronized void keep(long from, long to) {
+        if (next > hi && from <= to) {
+            next = from;
+            hi = to;
+        }
+    }
+
+    private Mono<Long> nextValue() {
+        return databaseClient.sql(nextValueSql())
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    private String nextValueSql() {
+        if (nextValueSql == null) {
+            Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+            nextValueSql = dialect.getSequenceSupport().getSequenceNextValString(BookIdGenerator.SEQUENCE_NAME);
+        }
+        return nextValueSql;
+    }
+}
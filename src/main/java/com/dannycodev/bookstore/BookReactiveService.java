@@ -0,0 +1,230 @@
+package com.dannycodev.bookstore;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Statement;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Variante reactiva de {@link BookService} sobre R2DBC, para clientes con mucho
+ * fan-out: ninguna operación bloquea el hilo que la invoca mientras espera a la
+ * base de datos.
+ *
+ * Trabaja sobre la misma tabla que la variante JPA (ver {@link BookReactiveConfiguration}),
+ * valida y normaliza igual ({@link BookValidator}) y, después de confirmar cada
+ * escritura, invalida la caché y actualiza los índices en memoria y la instantánea
+ * del catálogo ({@link BookCatalogSnapshot}), de modo que las
+ * dos variantes pueden usarse a la vez. Los cambios se registran en el mismo outbox
+ * ({@link BookChangeLog}) y en la misma transacción que la escritura.
+ *
+ * Con H2 el driver R2DBC envuelve el motor embebido, así que las consultas se
+ * ejecutan en el hilo que se suscribe; con un driver de red (PostgreSQL, MySQL...)
+ * las atiende un puñado de hilos de event loop.
+ */
+@Service
+public class BookReactiveService {
+
+    private static final String COLUMNS = "id, title, author, version";
+    private static final String RECORD_SAVED = "insert into book_change (type, book_id, title, author, book_version, occurred_at) "
+            + "select $1, id, title, author, version, $2 from book where id = $3";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final BookReactiveIdAllocator idAllocator;
+    private final BookCache bookCache;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookAuthorIndex bookAuthorIndex;
+    private final BookCatalogSnapshot bookCatalogSnapshot;
+
+    public BookReactiveService(DatabaseClient databaseClient, TransactionalOperator transactionalOperator,
+                               BookReactiveIdAllocator idAllocator, BookCache bookCache,
+                               BookSearchIndex bookSearchIndex, BookAuthorIndex bookAuthorIndex,
+                               BookCatalogSnapshot bookCatalogSnapshot) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+        this.idAllocator = idAllocator;
+        this.bookCache = bookCache;
+        this.bookSearchIndex = bookSearchIndex;
+        this.bookAuthorIndex = bookAuthorIndex;
+        this.bookCatalogSnapshot = bookCatalogSnapshot;
+    }
+
+    public Mono<Book> saveBook(Book book) {
+        return saveBooks(List.of(book)).single();
+    }
+
+    /**
+     * Inserta todos los libros en una transacción, con un único INSERT por lotes.
+     */
+    public Flux<Book> saveBooks(List<Book> books) {
+        return Mono.fromCallable(() -> {
+                    books.forEach(BookValidator::requireValid);
+                    books.forEach(BookValidator::normalize);
+                    return books;
+                })
+                .flatMap(valid -> idAllocator.allocate(valid.size()))
+                .flatMapMany(ids -> insert(books, ids))
+                // Un Flux transaccional emite antes del commit: se recogen y se aplican
+                // la caché, los índices y la instantánea una vez confirmado
+                .collectList()
+                .as(transactionalOperator::transactional)
+                .doOnNext(saved -> saved.forEach(this::afterWrite))
+                .flatMapIterable(saved -> saved);
+    }
+
+    /**
+     * Todo el catálogo ordenado por id, fila a fila y con contrapresión: el driver
+     * solo lee lo que el suscriptor ha pedido.
+     */
+    public Flux<Book> getAllBooks() {
+        return databaseClient.sql("select " + COLUMNS + " from book order by id")
+                .map(BookReactiveService::toBook)
+                .all();
+    }
+
+    public Mono<Book> getBookById(Long id) {
+        return Mono.justOrEmpty(bookCache.getIfPresent(id))
+                .switchIfEmpty(databaseClient.sql("select " + COLUMNS + " from book where id = :id")
+                        .bind("id", id)
+                        .map(BookReactiveService::toBook)
+                        .one());
+    }
+
+    /**
+     * Como {@link BookService#updateBook(Long, Book)}: un único UPDATE, condicional
+     * si {@code nuevosDatos} trae versión.
+     */
+    public Mono<Book> updateBook(Long id, Book nuevosDatos) {
+        return Mono.defer(() -> {
+                    BookValidator.requireValid(nuevosDatos);
+                    String title = BookValidator.normalizeText(nuevosDatos.getTitle());
+                    String author = BookValidator.normalizeText(nuevosDatos.getAuthor());
+                    Long version = nuevosDatos.getVersion();
+                    return version == null
+                            ? update(id, title, author)
+                            : updateIfVersionMatches(id, version, title, author);
+                })
+                .as(transactionalOperator::transactional)
+                .doOnNext(this::afterWrite);
+    }
+
+    public Mono<Void> deleteBookById(Long id) {
+        return databaseClient.sql("delete from book where id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .flatMap(rows -> rows == 0
+                        ? Mono.<Void>error(new BookNotFoundException("El libro no existe"))
+                        : databaseClient.sql("insert into book_change (type, book_id, occurred_at) values (:type, :id, :occurredAt)")
+                                .bind("type", BookChangeType.DELETED.name())
+                                .bind("id", id)
+                                .bind("occurredAt", Instant.now())
+                                .then())
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(done -> {
+                    bookCache.invalidate(id);
+                    bookSearchIndex.remove(id);
+                    bookAuthorIndex.remove(id);
+                    bookCatalogSnapshot.remove(id);
+                });
+    }
+
+    private Flux<Book> insert(List<Book> books, List<Long> ids) {
+        return databaseClient.inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(
+                    "insert into book (id, title, author, version) values ($1, $2, $3, 0)");
+            for (int i = 0; i < books.size(); i++) {
+                if (i > 0) {
+                    statement.add();
+                }
+                statement.bind(0, ids.get(i)).bind(1, books.get(i).getTitle()).bind(2, books.get(i).getAuthor());
+            }
+            Statement changes = connection.createStatement(RECORD_SAVED);
+            Instant now = Instant.now();
+            for (int i = 0; i < ids.size(); i++) {
+                if (i > 0) {
+                    changes.add();
+                }
+                changes.bind(0, BookChangeType.CREATED.name()).bind(1, now).bind(2, ids.get(i));
+            }
+            return Flux.from(statement.execute())
+                    .concatMap(result -> result.getRowsUpdated())
+                    .thenMany(changes.execute())
+                    .concatMap(result -> result.getRowsUpdated())
+                    .thenMany(Flux.range(0, books.size())
+                            .map(i -> new Book(ids.get(i), books.get(i).getTitle(), books.get(i).getAuthor(), 0L)));
+        });
+    }
+
+    private Mono<Book> update(Long id, String title, String author) {
+        return databaseClient.sql("update book set title = :title, author = :author, version = coalesce(version, 0) + 1 where id = :id")
+                .bind("title", title)
+                .bind("author", author)
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .flatMap(rows -> rows == 0
+                        ? Mono.error(new BookNotFoundException("No se puede actualizar: el libro no existe"))
+                        : recordUpdated(id)
+                                .then(version(id))
+                                .map(version -> new Book(id, title, author, version)));
+    }
+
+    private Mono<Book> updateIfVersionMatches(Long id, Long version, String title, String author) {
+        return databaseClient.sql("update book set title = :title, author = :author, version = version + 1 "
+                        + "where id = :id and version = :version")
+                .bind("title", title)
+                .bind("author", author)
+                .bind("id", id)
+                .bind("version", version)
+                .fetch()
+                .rowsUpdated()
+                .flatMap(rows -> rows > 0
+                        ? recordUpdated(id).thenReturn(new Book(id, title, author, version + 1))
+                        : exists(id).flatMap(exists -> Mono.error(exists
+                                ? new OptimisticLockingFailureException("El libro " + id + " ha cambiado desde la versión " + version)
+                                : new BookNotFoundException("No se puede actualizar: el libro no existe"))));
+    }
+
+    private Mono<Void> recordUpdated(Long id) {
+        return databaseClient.sql(RECORD_SAVED)
+                .bind(0, BookChangeType.UPDATED.name())
+                .bind(1, Instant.now())
+                .bind(2, id)
+                .then();
+    }
+
+    private Mono<Long> version(Long id) {
+        return databaseClient.sql("select version from book where id = :id")
+                .bind("id", id)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    private Mono<Boolean> exists(Long id) {
+        return databaseClient.sql("select count(*) from book where id = :id")
+                .bind("id", id)
+                .map(row -> row.get(0, Long.class) > 0)
+                .one();
+    }
+
+    private void afterWrite(Book book) {
+        bookCache.invalidate(book.getId());
+        bookSearchIndex.index(book);
+        bookAuthorIndex.index(book);
+        bookCatalogSnapshot.put(book);
+    }
+
+    private static Book toBook(Readable row) {
+        return new Book(row.get("id", Long.class), row.get("title", String.class),
+                row.get("author", String.class), row.get("version", Long.class));
+    }
+}
@@ -0,0 +1,17 @@
+package com.dannycodev.bookstore;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Libro descartado en una importación: su posición en el lote de entrada y
+ * las infracciones encontradas, codificadas como en {@link BookValidator}.
+ */
+public record BookRejection(int index, int violations) {
+
+    @JsonProperty
+    public List<String> messages() {
+        return BookValidator.messages(violations);
+    }
+}
@@ -0,0 +1,57 @@
+package com.dannycodev.bookstore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Réplicas de lectura para JPA y {@code JdbcTemplate}. Se activa con
+ * {@code bookstore.datasource.replicas}, una lista de URLs JDBC separadas por comas.
+ *
+ * Cada réplica tiene su propio pool, con la misma configuración
+ * ({@code spring.datasource.hikari.*}) y credenciales que el principal, que sigue siendo
+ * el {@code dataSource} de {@link BookReactiveConfiguration}. Por encima queda, como
+ * {@code DataSource} principal del contexto, un {@link LazyConnectionDataSourceProxy}
+ * sobre {@link BookReplicaRoutingDataSource}.
+ *
+ * La variante reactiva no pasa por aquí: R2DBC lee y escribe siempre en el principal.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "bookstore.datasource", name = "replicas")
+public class BookReplicaConfiguration {
+
+    @Bean
+    public BookReplicaRoutingDataSource bookReplicaRoutingDataSource(
+            @Qualifier("dataSource") HikariDataSource primary,
+            @Value("${bookstore.datasource.replicas}") List<String> urls,
+            @Value("${bookstore.datasource.replica-policy:round-robin}") BookReplicaPolicy policy) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariConfig config = new HikariConfig();
+            primary.copyStateTo(config);
+            config.setJdbcUrl(url.trim());
+            config.setPoolName("bookstore-replica-" + replicas.size());
+            replicas.add(new HikariDataSource(config));
+        }
+        return new BookReplicaRoutingDataSource(primary, replicas, policy);
+    }
+
+    @Bean
+    @Primary
+    public LazyConnectionDataSourceProxy routingDataSource(BookReplicaRoutingDataSource bookReplicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(bookReplicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,18 @@
+package com.dannycodev.bookstore;
+
+/**
+ * Cómo elige {@link BookReplicaRoutingDataSource} la réplica de cada transacción de
+ * solo lectura ({@code bookstore.datasource.replica-policy}).
+ */
+public enum BookReplicaPolicy {
+
+    /**
+     * Por turnos, una réplica tras otra.
+     */
+    ROUND_ROBIN,
+
+    /**
+     * La réplica con menos conexiones en uso en ese momento; ante un empate, la primera.
+     */
+    LEAST_LOADED
+}
@@ -0,0 +1,137 @@
+package com.dannycodev.bookstore;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * Reparte las conexiones entre la base de datos principal y sus réplicas de lectura.
+ *
+ * Las transacciones de solo lectura ({@code @Transactional(readOnly = true)} y las
+ * consultas de los repositorios de Spring Data) van a una réplica elegida según
+ * {@link BookReplicaPolicy}. Las de escritura, y lo que corre sin transacción, van al
+ * principal. Una lectura dentro de una transacción de escritura usa la conexión de esta.
+ *
+ * Cada petición HTTP lee lo que escribe: desde que abre una transacción de escritura,
+ * el resto de sus lecturas van al principal, que no tiene retraso de replicación.
+ * Fuera de una petición (tareas en segundo plano, hilos propios) no se aplica.
+ *
+ * Lo que se lee para guardarlo en una caché va siempre al principal
+ * ({@link #onPrimary(Supplier)}): una réplica con retraso devolvería la fila de antes
+ * de una escritura que ya invalidó la caché, y esa fila se quedaría ahí hasta caducar.
+ *
+ * Tiene que ir detrás de un {@link LazyConnectionDataSourceProxy}: así la conexión se
+ * pide al ejecutar la primera sentencia, cuando la transacción ya está marcada como de
+ * solo lectura, y no al abrirla.
+ */
+public class BookReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final String PRIMARY = "primary";
+    private static final String READS_FROM_PRIMARY = BookReplicaRoutingDataSource.class.getName() + ".READS_FROM_PRIMARY";
+
+    // Lecturas del hilo actual que deben ir al principal aunque sean de solo lectura
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private final List<HikariDataSource> replicas;
+    private final BookReplicaPolicy policy;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * Las réplicas pasan a ser de esta clase, que las cierra; el principal no.
+     */
+    public BookReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas,
+                                        BookReplicaPolicy policy) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("Hace falta al menos una réplica");
+        }
+        this.replicas = List.copyOf(replicas);
+        this.policy = policy;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                readFromPrimaryUntilEndOfRequest();
+            }
+            return PRIMARY;
+        }
+        if (readsFromPrimary() || FORCE_PRIMARY.get() != null) {
+            return PRIMARY;
+        }
+        return policy == BookReplicaPolicy.LEAST_LOADED ? leastLoadedReplica() : nextReplica();
+    }
+
+    private int nextReplica() {
+        return Math.floorMod(next.getAndIncrement(), replicas.size());
+    }
+
+    private int leastLoadedReplica() {
+        int best = 0;
+        int bestActive = Integer.MAX_VALUE;
+        for (int i = 0; i < replicas.size(); i++) {
+            // Sin pool todavía: la réplica no se ha usado
+            HikariPoolMXBean pool = replicas.get(i).getHikariPoolMXBean();
+            int active = pool == null ? 0 : pool.getActiveConnections();
+            if (active < bestActive) {
+                best = i;
+                bestActive = active;
+            }
+        }
+        return best;
+    }
+
+    private static void readFromPrimaryUntilEndOfRequest() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.setAttribute(READS_FROM_PRIMARY, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * Si la petición en curso ya escribió y por tanto lee del principal.
+     */
+    static boolean readsFromPrimary() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        return request != null && request.getAttribute(READS_FROM_PRIMARY, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+
+    /**
+     * Ejecuta {@code reads} en el hilo actual con todas sus lecturas en el principal,
+     * haya o no réplicas configuradas.
+     */
+    static <T> T onPrimary(Supplier<T> reads) {
+        if (FORCE_PRIMARY.get() != null) {
+            return reads.get();
+        }
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            FORCE_PRIMARY.remove();
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+    }
+}
@@ -1,7 +1,70 @@
 package com.dannycodev.bookstore;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+// Consultas de solo lectura por defecto (van a las réplicas si las hay); las que escriben
+// declaran su propio @Transactional
+@Transactional(readOnly = true)
+public interface BookRepository extends JpaRepository<Book, Long>, BookRepositoryCustom{
+
+    /**
+     * Paginación por cursor: los siguientes libros con id mayor que {@code id}.
+     */
+    List<Book> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Libros de un autor. Usa el índice {@code idx_book_author}.
+     */
+    List<Book> findByAuthorOrderByIdAsc(String author);
+
+    long countByAuthor(String author);
+
+    /**
+     * Candidatos para buscar por clave natural: incluye todas las parejas (título, autor)
+     * pedidas y, como mucho, algunas combinaciones más que hay que descartar.
+     */
+    List<Book> findByTitleInAndAuthorIn(Collection<String> titles, Collection<String> authors);
+
+    /**
+     * Libros por autor, agrupados en la base de datos, de los autores con más libros a los que menos.
+     */
+    @Query("select new com.dannycodev.bookstore.AuthorBookCount(b.author, count(b)) from Book b "
+            + "group by b.author order by count(b) desc, b.author")
+    List<AuthorBookCount> countBooksByAuthor(Limit limit);
+
+    @Query("select new com.dannycodev.bookstore.BookView(b.id, b.title, b.author) from Book b where b.id = :id")
+    Optional<BookView> findViewById(Long id);
+
+    @Query("select new com.dannycodev.bookstore.BookView(b.id, b.title, b.author) from Book b order by b.id")
+    List<BookView> findAllViews();
+
+    @Query("select new com.dannycodev.bookstore.BookView(b.id, b.title, b.author) from Book b where b.id > :id order by b.id")
+    List<BookView> findViewsAfter(Long id, Limit limit);
+
+    /**
+     * Borra el libro con una sola sentencia y devuelve las filas afectadas (0 o 1).
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Book b where b.id = :id")
+    int deleteDirectlyById(Long id);
 
-public interface BookRepository extends JpaRepository<Book, Long>{
+    /**
+     * Actualización condicional: solo cambia el libro si sigue en la versión
+     * {@code version}. Devuelve 0 si no existe o si otro lo cambió antes.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Book b set b.title = :title, b.author = :author, b.version = b.version + 1 "
+            + "where b.id = :id and b.version = :version")
+    int updateTitleAndAuthorByIdAndVersion(Long id, Long version, String title, String author);
 
 }
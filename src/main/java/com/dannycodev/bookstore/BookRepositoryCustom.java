@@ -0,0 +1,28 @@
+package com.dannycodev.bookstore;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface BookRepositoryCustom {
+
+    /**
+     * Recorre todo el catálogo ordenado por id sin cargarlo en memoria.
+     * Los libros se entregan desacoplados del contexto de persistencia, así que
+     * la memoria no crece con el número de filas. Debe usarse dentro de una
+     * transacción y cerrarse al terminar.
+     */
+    Stream<Book> streamAll();
+
+    /**
+     * Como {@link #streamAll()}, pero con {@link BookView}: no se crean entidades.
+     */
+    Stream<BookView> streamAllViews();
+
+    /**
+     * Actualiza título y autor con una sola sentencia y devuelve la versión que
+     * queda, leída del propio UPDATE; vacío si el libro no existe. Gana la última
+     * escritura: para una actualización condicional está
+     * {@link BookRepository#updateTitleAndAuthorByIdAndVersion}.
+     */
+    Optional<Long> updateTitleAndAuthorById(Long id, String title, String author);
+}
@@ -0,0 +1,75 @@
+package com.dannycodev.bookstore;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+
+class BookRepositoryImpl implements BookRepositoryCustom {
+
+    private final EntityManager entityManager;
+    private final int fetchSize;
+
+    BookRepositoryImpl(EntityManager entityManager,
+                       @Value("${bookstore.read.fetch-size:500}") int fetchSize) {
+        this.entityManager = entityManager;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public Stream<Book> streamAll() {
+        return entityManager.createQuery("select b from Book b order by b.id", Book.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .map(book -> {
+                    entityManager.detach(book);
+                    return book;
+                });
+    }
+
+    @Override
+    public Stream<BookView> streamAllViews() {
+        return entityManager.createQuery(
+                        "select new com.dannycodev.bookstore.BookView(b.id, b.title, b.author) from Book b order by b.id",
+                        BookView.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    /**
+     * La versión nueva sale de las claves generadas del UPDATE, que el driver
+     * traduce a {@code RETURNING} o equivalente (H2, PostgreSQL, Oracle); así no
+     * hace falta volver a leer la fila. Como los {@code @Modifying} del
+     * repositorio, vuelca el contexto antes y lo limpia después.
+     */
+    @Override
+    @Transactional
+    public Optional<Long> updateTitleAndAuthorById(Long id, String title, String author) {
+        entityManager.flush();
+        Optional<Long> version = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement update = connection.prepareStatement(
+                    "update book set title = ?, author = ?, version = coalesce(version, 0) + 1 where id = ?",
+                    new String[] {"version"})) {
+                update.setString(1, title);
+                update.setString(2, author);
+                update.setLong(3, id);
+                if (update.executeUpdate() == 0) {
+                    return Optional.<Long>empty();
+                }
+                try (ResultSet keys = update.getGeneratedKeys()) {
+                    return keys.next() ? Optional.of(keys.getLong(1)) : Optional.<Long>empty();
+                }
+            }
+        });
+        entityManager.clear();
+        return version;
+    }
+}
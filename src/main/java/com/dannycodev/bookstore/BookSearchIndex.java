@@ -0,0 +1,245 @@
+package com.dannycodev.bookstore;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Índice invertido en memoria sobre el título y el autor de los libros.
+ *
+ * Los términos se normalizan a minúsculas y sin tildes ("García" y "garcia"
+ * son el mismo término). {@link BookService} lo mantiene al día en cada alta,
+ * modificación y borrado, así que las búsquedas no recorren el catálogo.
+ */
+@Component
+public class BookSearchIndex {
+
+    static final int TITLE_WEIGHT = 2;
+    static final int AUTHOR_WEIGHT = 1;
+
+    // Los términos que solo coinciden por prefijo puntúan algo menos que los exactos
+    private static final double PREFIX_FACTOR = 0.8;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // término -> (id del libro -> peso del término en ese libro)
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    // id del libro -> términos indexados, para poder retirarlos al modificar o borrar
+    private final Map<Long, Map<String, Integer>> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void index(Book book) {
+        if (book.getId() == null) {
+            return;
+        }
+        Map<String, Integer> terms = new HashMap<>();
+        tokenize(book.getTitle()).forEach(term -> terms.merge(term, TITLE_WEIGHT, Integer::sum));
+        tokenize(book.getAuthor()).forEach(term -> terms.merge(term, AUTHOR_WEIGHT, Integer::sum));
+
+        lock.writeLock().lock();
+        try {
+            unindex(book.getId());
+            terms.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(book.getId(), weight));
+            documents.put(book.getId(), terms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            unindex(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Devuelve los ids de los libros que contienen todos los términos de la consulta,
+     * ordenados por relevancia. El último término se trata como prefijo para
+     * permitir buscar mientras se escribe.
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (int i = 0; i < terms.size(); i++) {
+                boolean last = i == terms.size() - 1;
+                Map<Long, Double> termScores = score(terms.get(i), last);
+                scores = scores == null ? termScores : intersect(scores, termScores);
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            return top(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Autocompletado: términos indexados que empiezan por {@code prefix},
+     * de los más frecuentes a los menos.
+     */
+    public List<String> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Map.Entry<String, Map<Long, Integer>>> best = new PriorityQueue<>(
+                    Comparator.comparingInt((Map.Entry<String, Map<Long, Integer>> e) -> e.getValue().size())
+                            .thenComparing(Map.Entry::getKey, Comparator.reverseOrder()));
+            for (Map.Entry<String, Map<Long, Integer>> entry : prefixRange(normalized).entrySet()) {
+                best.add(entry);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+            List<String> result = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                result.add(0, best.poll().getKey());
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT).trim();
+    }
+
+    static List<String> tokenize(String text) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        for (String term : SEPARATORS.split(normalized)) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return List.copyOf(terms);
+    }
+
+    private void unindex(Long id) {
+        Map<String, Integer> previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        previous.keySet().forEach(term -> {
+            Map<Long, Integer> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(id);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        });
+    }
+
+    private Map<Long, Double> score(String term, boolean prefix) {
+        Map<String, Map<Long, Integer>> candidates;
+        if (prefix) {
+            candidates = prefixRange(term);
+        } else {
+            Map<Long, Integer> docs = postings.get(term);
+            candidates = docs == null ? Map.of() : Map.of(term, docs);
+        }
+
+        // Un libro puntúa por su mejor coincidencia con el término, exacta o por prefijo
+        Map<Long, Double> scores = new HashMap<>();
+        candidates.forEach((candidate, docs) -> {
+            double factor = candidate.equals(term) ? 1.0 : PREFIX_FACTOR;
+            docs.forEach((id, weight) -> scores.merge(id, weight * factor, Math::max));
+        });
+
+        // Los términos raros pesan más que los que aparecen en medio catálogo
+        double idf = Math.log(1.0 + (double) documents.size() / Math.max(1, scores.size()));
+        scores.replaceAll((id, score) -> score * idf);
+        return scores;
+    }
+
+    private NavigableMap<String, Map<Long, Integer>> prefixRange(String prefix) {
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static Map<Long, Double> intersect(Map<Long, Double> left, Map<Long, Double> right) {
+        Map<Long, Double> smaller = left.size() <= right.size() ? left : right;
+        Map<Long, Double> larger = smaller == left ? right : left;
+        Map<Long, Double> result = new HashMap<>();
+        smaller.forEach((id, score) -> {
+            Double other = larger.get(id);
+            if (other != null) {
+                result.put(id, score + other);
+            }
+        });
+        return result;
+    }
+
+    private static List<Long> top(Map<Long, Double> scores, int limit) {
+        Comparator<Map.Entry<Long, Double>> byRelevance = Map.Entry.<Long, Double>comparingByValue()
+                .reversed()
+                .thenComparing(Map.Entry.comparingByKey());
+        PriorityQueue<Map.Entry<Long, Double>> best = new PriorityQueue<>(byRelevance.reversed());
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            best.add(entry);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<Long> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            result.add(0, best.poll().getKey());
+        }
+        return result;
+    }
+}
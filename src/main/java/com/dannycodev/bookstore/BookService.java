@@ -1,76 +1,553 @@
 package com.dannycodev.bookstore;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import io.micrometer.core.annotation.Timed;
+
+/**
+ * Cada método público queda medido en el timer {@code bookstore.service}, con las
+ * etiquetas {@code method} y {@code exception} (ver {@link BookMetricsConfiguration}).
+ *
+ * Las escrituras registran sus cambios en {@link BookChangeLog} dentro de la misma
+ * transacción; {@link #getChangesSince(long, int)} los devuelve en orden.
+ */
 @Service
+@Timed(value = "bookstore.service", histogram = true)
 public class BookService {
 
+    static final int MAX_PAGE_SIZE = 1000;
+
+    // Reintentos de modifyBook ante escrituras concurrentes: espera aleatoria
+    // entre 0 y un tope que se duplica en cada intento
+    static final int MAX_UPDATE_ATTEMPTS = 10;
+    static final Duration UPDATE_BACKOFF_BASE = Duration.ofMillis(2);
+    static final Duration UPDATE_BACKOFF_MAX = Duration.ofMillis(100);
+
+    // Reintentos de upsertBooks cuando otra escritura inserta a la vez un mismo libro
+    static final int MAX_UPSERT_ATTEMPTS = 3;
+
     private final BookRepository bookRepository;
+    private final BookBulkIngester bookBulkIngester;
+    private final BookParallelWriter bookParallelWriter;
+    private final BookCache bookCache;
+    private final BookBatchLoader bookBatchLoader;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookAuthorIndex bookAuthorIndex;
+    private final BookCatalogSnapshot bookCatalogSnapshot;
+    private final BookChangeLog bookChangeLog;
+    private final TransactionOperations transactionOperations;
 
-    public BookService(BookRepository bookRepository) {
+    public BookService(BookRepository bookRepository, BookBulkIngester bookBulkIngester,
+                       BookParallelWriter bookParallelWriter, BookCache bookCache,
+                       BookBatchLoader bookBatchLoader, BookSearchIndex bookSearchIndex, BookAuthorIndex bookAuthorIndex,
+                       BookCatalogSnapshot bookCatalogSnapshot, BookChangeLog bookChangeLog,
+                       TransactionOperations transactionOperations) {
         this.bookRepository = bookRepository;
+        this.bookBulkIngester = bookBulkIngester;
+        this.bookParallelWriter = bookParallelWriter;
+        this.bookCache = bookCache;
+        this.bookBatchLoader = bookBatchLoader;
+        this.bookSearchIndex = bookSearchIndex;
+        this.bookAuthorIndex = bookAuthorIndex;
+        this.bookCatalogSnapshot = bookCatalogSnapshot;
+        this.bookChangeLog = bookChangeLog;
+        this.transactionOperations = transactionOperations;
     }
 
+    @Transactional
     public Book saveBook(Book book) {
-        if(book.getTitle() == null || book.getTitle().isBlank()){
-            throw new IllegalArgumentException("El libro debe tener un título válido");
-        }
-        if(book.getAuthor() == null || book.getAuthor().isBlank()){
-            throw new IllegalArgumentException("El libro debe tener un autor válido");
-        }
+        BookValidator.requireValid(book);
          // Modificamos el objeto internamente
-        book.setTitle(book.getTitle().trim());
-        book.setAuthor(book.getAuthor().trim());
-        
-        return bookRepository.save(book);
+        BookValidator.normalize(book);
+        BookChangeType type = changeType(book);
+
+        Book saved = bookRepository.save(book);
+        bookChangeLog.recordSaved(type, List.of(saved));
+        bookCache.invalidate(saved.getId());
+        afterCommit(() -> index(saved));
+        return saved;
     }
 
+    @Transactional
     public List<Book> saveBooks(List<Book> books){
-        books.forEach(book -> {
-            if(book.getTitle() == null || book.getTitle().isBlank()){
-                throw new IllegalArgumentException("El libro debe tener un título válido");
+        books.forEach(BookValidator::requireValid);
+        books.forEach(BookValidator::normalize);
+        List<BookChangeType> types = books.stream().map(BookService::changeType).toList();
+        List<Book> saved = bookRepository.saveAll(books);
+        IntStream.range(0, saved.size()).boxed()
+                .collect(Collectors.groupingBy(types::get, () -> new EnumMap<>(BookChangeType.class),
+                        Collectors.mapping(saved::get, Collectors.toList())))
+                .forEach(bookChangeLog::recordSaved);
+        saved.forEach(book -> bookCache.invalidate(book.getId()));
+        afterCommit(() -> saved.forEach(this::index));
+        return saved;
+    }
+
+    /**
+     * Variante de {@link #saveBooks(List)} para catálogos grandes: valida y recorta
+     * todos los libros y los inserta en lotes JDBC, sin pasar por {@code saveAll}.
+     * Los que ya existen con el mismo título y autor se omiten y no cuentan en el informe.
+     */
+    public BulkIngestReport ingestBooks(List<Book> books) {
+        books.forEach(BookValidator::requireValid);
+        books.forEach(BookValidator::normalize);
+        return ingestValidated(books, index -> { });
+    }
+
+    /**
+     * Variante de {@link #ingestBooks(List)} para lotes de cientos de miles de libros:
+     * valida por bloques en paralelo y los inserta a la vez en varias transacciones
+     * ({@link BookParallelWriter}). Con {@link BookWriteMode#PER_CHUNK} devuelve qué
+     * bloques se guardaron en lugar de fallar entero.
+     *
+     * Debe llamarse fuera de una transacción: cada bloque se confirma en la suya.
+     */
+    public BookParallelWriteReport saveBooksInParallel(List<Book> books, BookWriteMode mode) {
+        return bookParallelWriter.write(books, mode, committed -> committed.forEach(this::index));
+    }
+
+    /**
+     * Alta idempotente: valida y normaliza como {@link #saveBooks(List)}, pero solo
+     * inserta los libros cuyo título y autor no existen ya, así que repetir la misma
+     * carga no duplica nada. Busca los existentes con una consulta por bloque, no
+     * una por libro ({@link BookBulkIngester#upsert(List, Consumer)}).
+     *
+     * Si otra escritura inserta a la vez alguno de los libros, la transacción choca
+     * con la clave única y se reintenta entera, hasta {@value #MAX_UPSERT_ATTEMPTS}
+     * veces. Por eso debe llamarse fuera de una transacción.
+     */
+    public BookUpsertResult upsertBooks(List<Book> books) {
+        books.forEach(BookValidator::requireValid);
+        books.forEach(BookValidator::normalize);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return bookBulkIngester.upsert(books, inserted -> afterCommit(() -> inserted.forEach(this::index)));
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == MAX_UPSERT_ATTEMPTS) {
+                    throw e;
+                }
             }
-            if(book.getAuthor() == null || book.getAuthor().isBlank()){
-                throw new IllegalArgumentException("El libro debe tener un autor válido");
-            }  
+        }
+    }
+
+    /**
+     * Importación tolerante a datos sucios: carga los libros válidos (normalizados)
+     * y devuelve, en lugar de lanzar una excepción, qué posiciones del lote se
+     * descartaron y por qué. Un libro que ya existe se descarta como
+     * {@link BookValidator#DUPLICATE}, así que repetir una importación no falla.
+     */
+    public BookImportResult importBooks(List<Book> books) {
+        BookValidator.Result validation = BookValidator.validateAll(books);
+        List<BookRejection> rejections = new ArrayList<>(validation.rejections());
+        BulkIngestReport report = ingestValidated(validation.valid(), index ->
+                rejections.add(new BookRejection(validation.positions().get(index), BookValidator.DUPLICATE)));
+        rejections.sort(Comparator.comparingInt(BookRejection::index));
+        return new BookImportResult(report, rejections);
+    }
+
+    private BulkIngestReport ingestValidated(List<Book> books, IntConsumer onDuplicate) {
+        BitSet duplicates = new BitSet(books.size());
+        BulkIngestReport report = bookBulkIngester.ingestSkippingDuplicates(books, index -> {
+            duplicates.set(index);
+            onDuplicate.accept(index);
         });
-        return bookRepository.saveAll(books);
+        afterCommit(() -> IntStream.range(0, books.size())
+                .filter(index -> !duplicates.get(index))
+                .forEach(index -> index(books.get(index))));
+        return report;
     }
 
+    /**
+     * Carga todo el catálogo en una lista. Para catálogos grandes conviene
+     * {@link #getBooksPage(Long, int)} o {@link #forEachBook(Consumer)}.
+     */
     public List<Book> getAllBooks() {
+        if (bookCatalogSnapshot.isReady()) {
+            return bookCatalogSnapshot.books(Long.MIN_VALUE, Integer.MAX_VALUE);
+        }
         return bookRepository.findAll();
     }
 
+    /**
+     * Devuelve hasta {@code size} libros con id mayor que {@code afterId}
+     * ({@code null} para empezar desde el principio).
+     */
+    public BookPage<Book> getBooksPage(Long afterId, int size) {
+        checkPageSize(size);
+        long after = afterId == null ? 0L : afterId;
+        List<Book> books = bookCatalogSnapshot.isReady()
+                ? bookCatalogSnapshot.books(after, size)
+                : bookRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(size));
+        Long nextCursor = books.size() < size ? null : books.get(books.size() - 1).getId();
+        return new BookPage<>(books, nextCursor);
+    }
+
+    /**
+     * Como {@link #getBooksPage(Long, int)}, pero con vistas de solo lectura.
+     */
+    public BookPage<BookView> getBookViewsPage(Long afterId, int size) {
+        checkPageSize(size);
+        long after = afterId == null ? 0L : afterId;
+        List<BookView> books = bookCatalogSnapshot.isReady()
+                ? bookCatalogSnapshot.views(after, size)
+                : bookRepository.findViewsAfter(after, Limit.of(size));
+        Long nextCursor = books.size() < size ? null : books.get(books.size() - 1).id();
+        return new BookPage<>(books, nextCursor);
+    }
+
+    /**
+     * Todo el catálogo como vistas de solo lectura, más ligero que {@link #getAllBooks()}.
+     */
+    public List<BookView> getAllBookViews() {
+        if (bookCatalogSnapshot.isReady()) {
+            return bookCatalogSnapshot.views(Long.MIN_VALUE, Integer.MAX_VALUE);
+        }
+        return bookRepository.findAllViews();
+    }
+
+    /**
+     * Lectura por id sin entidad gestionada. Si el libro ya está en la caché
+     * se sirve desde ahí.
+     */
+    public Optional<BookView> getBookViewById(Long id) {
+        if (bookCatalogSnapshot.isReady()) {
+            return bookCatalogSnapshot.findView(id);
+        }
+        return bookCache.getIfPresent(id)
+                .map(BookView::of)
+                .or(() -> bookRepository.findViewById(id));
+    }
+
+    private static void checkPageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+    }
+
+    /**
+     * Recorre todo el catálogo en streaming con memoria constante.
+     */
+    @Transactional(readOnly = true)
+    public void forEachBook(Consumer<Book> action) {
+        try (Stream<Book> books = bookRepository.streamAll()) {
+            books.forEach(action);
+        }
+    }
+
+    /**
+     * Como {@link #forEachBook(Consumer)}, pero con vistas de solo lectura.
+     */
+    @Transactional(readOnly = true)
+    public void forEachBookView(Consumer<BookView> action) {
+        try (Stream<BookView> books = bookRepository.streamAllViews()) {
+            books.forEach(action);
+        }
+    }
+
+    /**
+     * Las lecturas simultáneas de un mismo id comparten una sola consulta (ver {@link BookCache}).
+     * Lo que se carga en la caché se lee del principal, no de una réplica.
+     *
+     * Dentro de una transacción se consulta sin pasar por la caché: la fila podría ser
+     * una escritura aún sin confirmar que luego se revierta.
+     */
     public Optional<Book> getBookById(Long id) {
-        return bookRepository.findById(id);
+        // La instantánea solo recibe los cambios tras el commit: no vería los de esta transacción
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return bookRepository.findById(id);
+        }
+        if (bookCatalogSnapshot.isReady()) {
+            return bookCatalogSnapshot.find(id);
+        }
+        return bookCache.get(id, key -> BookReplicaRoutingDataSource.onPrimary(() -> bookRepository.findById(key)));
+    }
+
+    /**
+     * Varios libros por id, en el orden pedido y sin los que no existen. Los que no
+     * están en caché se piden con una consulta {@code IN} que comparten las llamadas
+     * simultáneas (ver {@link BookBatchLoader}) y se guardan en la caché. Dentro de una
+     * transacción se consultan todos, sin caché ni instantánea, y si la petición ya
+     * escribió, los que faltan se piden sin agrupar: así se ven las propias escrituras.
+     */
+    public List<Book> getBooksByIds(Collection<Long> ids) {
+        List<Long> wanted = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            Map<Long, Book> byId = bookRepository.findAllById(wanted).stream()
+                    .collect(Collectors.toMap(Book::getId, Function.identity()));
+            return wanted.stream().map(byId::get).filter(Objects::nonNull).toList();
+        }
+        if (bookCatalogSnapshot.isReady()) {
+            return wanted.stream().map(bookCatalogSnapshot::find).flatMap(Optional::stream).toList();
+        }
+        Map<Long, Book> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : wanted) {
+            bookCache.getIfPresent(id).ifPresentOrElse(book -> found.put(id, book), () -> missing.add(id));
+        }
+        if (!missing.isEmpty()) {
+            if (BookReplicaRoutingDataSource.readsFromPrimary()) {
+                bookRepository.findAllById(missing).forEach(book -> found.put(book.getId(), book));
+            } else {
+                long mark = bookCache.invalidationMark();
+                Map<Long, Book> loaded = bookBatchLoader.load(missing);
+                bookCache.putAll(loaded, mark);
+                found.putAll(loaded);
+            }
+        }
+        return wanted.stream().map(found::get).filter(Objects::nonNull).toList();
     }
 
+    @Transactional
     public void deleteBookById(Long id) {
-        if (!bookRepository.existsById(id)) {
-            throw new IllegalArgumentException("El libro no existe");
+        if (bookRepository.deleteDirectlyById(id) == 0) {
+            throw new BookNotFoundException("El libro no existe");
         }
-        bookRepository.deleteById(id);
+        bookChangeLog.recordDeleted(id);
+        bookCache.invalidate(id);
+        afterCommit(() -> {
+            bookSearchIndex.remove(id);
+            bookAuthorIndex.remove(id);
+            bookCatalogSnapshot.remove(id);
+        });
     }
 
+    /**
+     * Actualiza título y autor con un único UPDATE, sin leer antes el libro.
+     * Si {@code nuevosDatos} trae versión, la actualización es condicional
+     * ({@link #updateBook(Long, Long, Book)}); si no, gana la última escritura y
+     * el mismo UPDATE devuelve la versión resultante.
+     */
+    @Transactional
     public Book updateBook(Long id, Book nuevosDatos) {
-        Book existente = bookRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("No se puede actualizar: el libro no existe"));
-    
-        if (nuevosDatos.getTitle() == null || nuevosDatos.getTitle().isBlank()) {
-            throw new IllegalArgumentException("El libro debe tener un título válido");
-        }
-    
-        if (nuevosDatos.getAuthor() == null || nuevosDatos.getAuthor().isBlank()) {
-            throw new IllegalArgumentException("El libro debe tener un autor válido");
+        if (nuevosDatos.getVersion() != null) {
+            return updateBook(id, nuevosDatos.getVersion(), nuevosDatos);
         }
+        BookValidator.requireValid(nuevosDatos);
+        String title = BookValidator.normalizeText(nuevosDatos.getTitle());
+        String author = BookValidator.normalizeText(nuevosDatos.getAuthor());
     
-        existente.setTitle(nuevosDatos.getTitle());
-        existente.setAuthor(nuevosDatos.getAuthor());
+        Long version = bookRepository.updateTitleAndAuthorById(id, title, author)
+                .orElseThrow(() -> new BookNotFoundException("No se puede actualizar: el libro no existe"));
+        Book actualizado = new Book(id, title, author, version);
+        bookChangeLog.recordSaved(BookChangeType.UPDATED, List.of(actualizado));
+        bookCache.invalidate(id);
     
-        return bookRepository.save(existente);
+        afterCommit(() -> index(actualizado));
+        return actualizado;
     }
-    
+
+    /**
+     * Actualización condicional, también con un único UPDATE: solo se aplica si el
+     * libro sigue en la versión {@code version}. Si otro lo cambió antes lanza
+     * {@link OptimisticLockingFailureException} y no escribe nada.
+     */
+    @Transactional
+    public Book updateBook(Long id, Long version, Book nuevosDatos) {
+        BookValidator.requireValid(nuevosDatos);
+        String title = BookValidator.normalizeText(nuevosDatos.getTitle());
+        String author = BookValidator.normalizeText(nuevosDatos.getAuthor());
+
+        if (bookRepository.updateTitleAndAuthorByIdAndVersion(id, version, title, author) == 0) {
+            if (!bookRepository.existsById(id)) {
+                throw new BookNotFoundException("No se puede actualizar: el libro no existe");
+            }
+            throw new OptimisticLockingFailureException(
+                    "El libro " + id + " ha cambiado desde la versión " + version);
+        }
+        Book actualizado = new Book(id, title, author, version + 1);
+        bookChangeLog.recordSaved(BookChangeType.UPDATED, List.of(actualizado));
+        bookCache.invalidate(id);
+
+        afterCommit(() -> index(actualizado));
+        return actualizado;
+    }
+
+    /**
+     * Lee el libro, le aplica {@code cambio} y lo guarda con una actualización
+     * condicional. Si otra escritura se adelanta, vuelve a leer y reintenta con
+     * espera exponencial, hasta {@value #MAX_UPDATE_ATTEMPTS} intentos; ningún
+     * cambio se pierde. {@code cambio} puede ejecutarse varias veces y recibe una copia.
+     *
+     * Conviene llamarlo fuera de una transacción, para que cada intento lea el
+     * último valor confirmado; cada escritura va en su propia transacción. Se lee del
+     * principal: una réplica con retraso daría una versión vieja en cada intento.
+     */
+    public Book modifyBook(Long id, UnaryOperator<Book> cambio) {
+        for (int attempt = 1; ; attempt++) {
+            Book actual = BookReplicaRoutingDataSource.onPrimary(() -> bookRepository.findById(id))
+                    .orElseThrow(() -> new BookNotFoundException("No se puede actualizar: el libro no existe"));
+            Book nuevosDatos = cambio.apply(actual.toBuilder().build());
+            try {
+                return transactionOperations.execute(status -> updateBook(id, actual.getVersion(), nuevosDatos));
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt == MAX_UPDATE_ATTEMPTS || !backOff(attempt)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static boolean backOff(int attempt) {
+        long limit = Math.min(UPDATE_BACKOFF_MAX.toNanos(), UPDATE_BACKOFF_BASE.toNanos() << (attempt - 1));
+        try {
+            Thread.sleep(Duration.ofNanos(ThreadLocalRandom.current().nextLong(limit + 1)));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Hasta {@code limit} cambios de libros posteriores a {@code sequence}, en el orden
+     * en que se hicieron. Para sincronizar un sistema externo: se empieza por 0 y se
+     * sigue con el {@code nextSequence} de cada página.
+     */
+    public BookChangePage getChangesSince(long sequence, int limit) {
+        checkPageSize(limit);
+        if (sequence < 0) {
+            throw new IllegalArgumentException("La secuencia no puede ser negativa");
+        }
+        return bookChangeLog.changesSince(sequence, limit);
+    }
+
+    /**
+     * Búsqueda por título y autor sin distinguir mayúsculas ni tildes, ordenada
+     * por relevancia. El último término de la consulta admite coincidencia por prefijo.
+     */
+    public List<Book> searchBooks(String query, int limit) {
+        checkPageSize(limit);
+        List<Long> ids = bookSearchIndex.search(query, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Book> byId = bookRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Sugerencias de autocompletado para lo que el usuario lleva escrito.
+     */
+    public List<String> suggestTerms(String prefix, int limit) {
+        return bookSearchIndex.suggest(prefix, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Libros de un autor, por la columna indexada {@code author}.
+     */
+    public List<Book> getBooksByAuthor(String author) {
+        return bookRepository.findByAuthorOrderByIdAsc(normalizeAuthor(author));
+    }
+
+    /**
+     * Número de libros de un autor. Sale del índice en memoria si está cargado
+     * y, si no, de un COUNT en la base de datos.
+     */
+    public long countBooksByAuthor(String author) {
+        String normalized = normalizeAuthor(author);
+        OptionalLong indexed = bookAuthorIndex.count(normalized);
+        return indexed.isPresent() ? indexed.getAsLong() : bookRepository.countByAuthor(normalized);
+    }
+
+    /**
+     * Los autores con más libros, con su número de libros.
+     */
+    public List<AuthorBookCount> getTopAuthors(int limit) {
+        checkPageSize(limit);
+        return bookAuthorIndex.topAuthors(limit)
+                .orElseGet(() -> bookRepository.countBooksByAuthor(Limit.of(limit)));
+    }
+
+    /**
+     * Construye los índices en memoria (búsqueda y autores) y, si está activada, la
+     * instantánea del catálogo ({@link BookCatalogSnapshot}) al arrancar la aplicación,
+     * en una sola pasada. A partir de ahí se mantienen con cada escritura hecha a
+     * través de este servicio.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildSearchIndex() {
+        bookSearchIndex.clear();
+        bookAuthorIndex.clear();
+        BookCatalogSnapshot.Loader snapshot = bookCatalogSnapshot.load();
+        try (Stream<Book> books = bookRepository.streamAll()) {
+            books.forEach(book -> {
+                bookSearchIndex.index(book);
+                bookAuthorIndex.index(book);
+                snapshot.add(book);
+            });
+        }
+        bookAuthorIndex.markReady();
+        snapshot.publish();
+    }
+
+    private static String normalizeAuthor(String author) {
+        if (author == null || author.isBlank()) {
+            throw new IllegalArgumentException("El autor no puede estar vacío");
+        }
+        return BookValidator.normalizeText(author);
+    }
+
+    // Mismo criterio que save(): sin versión es un alta
+    static BookChangeType changeType(Book book) {
+        return book.getVersion() == null ? BookChangeType.CREATED : BookChangeType.UPDATED;
+    }
+
+    private void index(Book book) {
+        bookSearchIndex.index(book);
+        bookAuthorIndex.index(book);
+        bookCatalogSnapshot.put(book);
+    }
+
+    /**
+     * Ejecuta la acción cuando la transacción en curso confirma, o enseguida si
+     * no hay ninguna. Así el índice de búsqueda no refleja escrituras revertidas.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
 }
@@ -0,0 +1,187 @@
+package com.dannycodev.bookstore;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Catálogo inmutable fuera del heap, ordenado por id. Lo construye y publica
+ * {@link BookCatalogSnapshot}.
+ *
+ * Cada libro ocupa una ranura fija de {@value #SLOT_BYTES} bytes en {@code slots}: id,
+ * versión, posición de sus textos en {@code text} y longitud del título. El autor va
+ * justo detrás del título y acaba donde empiezan los textos del libro siguiente. Los
+ * textos se guardan en UTF-8.
+ *
+ * Los dos buffers son directos: el recolector no recorre su contenido y solo cuentan
+ * para {@code -XX:MaxDirectMemorySize}. Buscar un id es una búsqueda binaria sobre las
+ * ranuras que no crea ningún objeto; solo se crean el {@link Book} o la
+ * {@link BookView} que se devuelven. Se leen con accesos absolutos, así que varios
+ * hilos pueden leer a la vez.
+ */
+final class BookSnapshot {
+
+    static final int SLOT_BYTES = 24;
+    private static final int VERSION = 8;
+    private static final int TEXT_START = 16;
+    private static final int TITLE_BYTES = 20;
+    private static final long NO_VERSION = Long.MIN_VALUE;
+
+    static final BookSnapshot EMPTY = new Builder(0).build();
+
+    private final ByteBuffer slots;
+    private final ByteBuffer text;
+    private final int size;
+
+    private BookSnapshot(ByteBuffer slots, ByteBuffer text, int size) {
+        this.slots = slots;
+        this.text = text;
+        this.size = size;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long offHeapBytes() {
+        return (long) slots.capacity() + text.capacity();
+    }
+
+    long idAt(int index) {
+        return slots.getLong(index * SLOT_BYTES);
+    }
+
+    /**
+     * Posición del libro con ese id o, si no está, {@code -(posición donde iría) - 1},
+     * como {@link java.util.Arrays#binarySearch(long[], long)}.
+     */
+    int indexOf(long id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long current = idAt(middle);
+            if (current < id) {
+                low = middle + 1;
+            } else if (current > id) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Posición del primer libro con id mayor que {@code id}.
+     */
+    int indexAfter(long id) {
+        int index = indexOf(id);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    Book bookAt(int index) {
+        long version = slots.getLong(index * SLOT_BYTES + VERSION);
+        return new Book(idAt(index), title(index), author(index), version == NO_VERSION ? null : version);
+    }
+
+    BookView viewAt(int index) {
+        return new BookView(idAt(index), title(index), author(index));
+    }
+
+    private String title(int index) {
+        int start = textStart(index);
+        return decode(start, start + titleBytes(index));
+    }
+
+    private String author(int index) {
+        return decode(textStart(index) + titleBytes(index), textEnd(index));
+    }
+
+    private int textStart(int index) {
+        return slots.getInt(index * SLOT_BYTES + TEXT_START);
+    }
+
+    private int titleBytes(int index) {
+        return slots.getInt(index * SLOT_BYTES + TITLE_BYTES);
+    }
+
+    private int textEnd(int index) {
+        return index + 1 < size ? textStart(index + 1) : text.capacity();
+    }
+
+    private String decode(int from, int to) {
+        byte[] bytes = new byte[to - from];
+        text.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Añade libros en orden creciente de id a buffers directos que crecen al doble;
+     * {@link #build()} los copia a unos del tamaño justo.
+     */
+    static final class Builder {
+
+        private ByteBuffer slots;
+        private ByteBuffer text;
+        private int size;
+        private long lastId = Long.MIN_VALUE;
+
+        Builder(int expectedBooks) {
+            slots = ByteBuffer.allocateDirect(Math.max(expectedBooks, 16) * SLOT_BYTES);
+            text = ByteBuffer.allocateDirect(Math.max(expectedBooks, 16) * 32);
+        }
+
+        Builder add(Book book) {
+            byte[] title = book.getTitle().getBytes(StandardCharsets.UTF_8);
+            byte[] author = book.getAuthor().getBytes(StandardCharsets.UTF_8);
+            long version = book.getVersion() == null ? NO_VERSION : book.getVersion();
+            slot(book.getId(), version, title.length, title.length + author.length);
+            text.put(title).put(author);
+            return this;
+        }
+
+        /**
+         * Copia el libro {@code index} de otra instantánea sin decodificar sus textos.
+         */
+        Builder add(BookSnapshot from, int index) {
+            int start = from.textStart(index);
+            int length = from.textEnd(index) - start;
+            slot(from.idAt(index), from.slots.getLong(index * SLOT_BYTES + VERSION), from.titleBytes(index), length);
+            text.put(from.text.slice(start, length));
+            return this;
+        }
+
+        private void slot(long id, long version, int titleBytes, int textBytes) {
+            if (size > 0 && id <= lastId) {
+                throw new IllegalArgumentException("Los libros deben añadirse en orden creciente de id: " + id
+                        + " llega después de " + lastId);
+            }
+            slots = ensureRemaining(slots, SLOT_BYTES);
+            text = ensureRemaining(text, textBytes);
+            slots.putLong(id).putLong(version).putInt(text.position()).putInt(titleBytes);
+            lastId = id;
+            size++;
+        }
+
+        BookSnapshot build() {
+            return new BookSnapshot(exactCopy(slots), exactCopy(text), size);
+        }
+
+        private static ByteBuffer ensureRemaining(ByteBuffer buffer, int bytes) {
+            if (buffer.remaining() >= bytes) {
+                return buffer;
+            }
+            long needed = (long) buffer.position() + bytes;
+            if (needed > Integer.MAX_VALUE) {
+                throw new IllegalStateException("El catálogo no cabe en una instantánea: más de "
+                        + Integer.MAX_VALUE + " bytes");
+            }
+            int capacity = (int) Math.min(Integer.MAX_VALUE, Math.max(needed, 2L * buffer.capacity()));
+            return ByteBuffer.allocateDirect(capacity).put(buffer.flip());
+        }
+
+        private static ByteBuffer exactCopy(ByteBuffer buffer) {
+            return ByteBuffer.allocateDirect(buffer.position()).put(buffer.flip()).flip();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.dannycodev.bookstore;
+
+import java.util.List;
+
+/**
+ * Resumen de una exportación o importación completa del catálogo.
+ *
+ * {@code rejected} cuenta todos los libros descartados; {@code rejections} solo
+ * detalla los primeros {@value BookCatalogTransfer#MAX_REPORTED_REJECTIONS}, para
+ * que un fichero muy sucio no llene la memoria.
+ */
+public record BookTransferReport(long rows, long rejected, List<BookRejection> rejections, long elapsedNanos) {
+
+    public double rowsPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return rows * 1_000_000_000d / elapsedNanos;
+    }
+}
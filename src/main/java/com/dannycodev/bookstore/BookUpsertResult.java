@@ -0,0 +1,17 @@
+package com.dannycodev.bookstore;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Resultado de {@link BookService#upsertBooks(List)}: un libro por cada libro de
+ * entrada, en el mismo orden y con su id, y cuántos hubo que insertar.
+ */
+public record BookUpsertResult(List<Book> books, int inserted, long elapsedNanos) {
+
+    @JsonProperty
+    public int existing() {
+        return books.size() - inserted;
+    }
+}
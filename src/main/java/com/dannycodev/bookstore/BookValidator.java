@@ -0,0 +1,136 @@
+package com.dannycodev.bookstore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Validación y normalización compartida por todas las escrituras de {@link BookService}.
+ *
+ * Las infracciones se codifican como bits en un {@code int}, así que validar un
+ * libro correcto no reserva memoria. La normalización recorta los extremos y
+ * colapsa los espacios repetidos, y devuelve el mismo {@link String} cuando
+ * no hay nada que cambiar.
+ */
+final class BookValidator {
+
+    static final int TITLE_INVALID = 1;
+    static final int AUTHOR_INVALID = 1 << 1;
+    /** No lo detecta {@link #check(Book)}: lo anotan las cargas que consultan la base de datos. */
+    static final int DUPLICATE = 1 << 2;
+
+    static final String TITLE_MESSAGE = "El libro debe tener un título válido";
+    static final String AUTHOR_MESSAGE = "El libro debe tener un autor válido";
+    static final String DUPLICATE_MESSAGE = "Ya existe un libro con el mismo título y autor";
+
+    private BookValidator() {
+    }
+
+    /**
+     * Devuelve las infracciones del libro como máscara de bits; 0 si es válido.
+     */
+    static int check(Book book) {
+        int violations = 0;
+        if (book == null || book.getTitle() == null || book.getTitle().isBlank()) {
+            violations |= TITLE_INVALID;
+        }
+        if (book == null || book.getAuthor() == null || book.getAuthor().isBlank()) {
+            violations |= AUTHOR_INVALID;
+        }
+        return violations;
+    }
+
+    /**
+     * Lanza {@link IllegalArgumentException} con la primera infracción encontrada.
+     */
+    static void requireValid(Book book) {
+        int violations = check(book);
+        if (violations != 0) {
+            throw new IllegalArgumentException(messages(violations).get(0));
+        }
+    }
+
+    static void normalize(Book book) {
+        book.setTitle(normalizeText(book.getTitle()));
+        book.setAuthor(normalizeText(book.getAuthor()));
+    }
+
+    /**
+     * Recorre el lote una sola vez: los libros válidos se normalizan en su sitio
+     * y los inválidos se anotan con su posición y sus infracciones.
+     */
+    static Result validateAll(List<Book> books) {
+        List<Book> valid = new ArrayList<>(books.size());
+        List<Integer> positions = new ArrayList<>(books.size());
+        List<BookRejection> rejections = new ArrayList<>();
+        for (int i = 0; i < books.size(); i++) {
+            Book book = books.get(i);
+            int violations = check(book);
+            if (violations == 0) {
+                normalize(book);
+                valid.add(book);
+                positions.add(i);
+            } else {
+                rejections.add(new BookRejection(i, violations));
+            }
+        }
+        return new Result(valid, positions, rejections);
+    }
+
+    static List<String> messages(int violations) {
+        List<String> messages = new ArrayList<>(2);
+        if ((violations & TITLE_INVALID) != 0) {
+            messages.add(TITLE_MESSAGE);
+        }
+        if ((violations & AUTHOR_INVALID) != 0) {
+            messages.add(AUTHOR_MESSAGE);
+        }
+        if ((violations & DUPLICATE) != 0) {
+            messages.add(DUPLICATE_MESSAGE);
+        }
+        return messages;
+    }
+
+    static String normalizeText(String text) {
+        if (text == null || !needsNormalization(text)) {
+            return text;
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = normalized.length() > 0;
+            } else {
+                if (pendingSpace) {
+                    normalized.append(' ');
+                    pendingSpace = false;
+                }
+                normalized.append(c);
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static boolean needsNormalization(String text) {
+        int length = text.length();
+        if (length == 0) {
+            return false;
+        }
+        if (Character.isWhitespace(text.charAt(0)) || Character.isWhitespace(text.charAt(length - 1))) {
+            return true;
+        }
+        for (int i = 1; i < length; i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c) && (c != ' ' || Character.isWhitespace(text.charAt(i - 1)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@code positions} guarda, para cada libro de {@code valid}, su posición en el lote.
+     */
+    record Result(List<Book> valid, List<Integer> positions, List<BookRejection> rejections) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.dannycodev.bookstore;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compatibilidad con tablas creadas antes de que {@link Book} tuviera versión.
+ *
+ * Al arrancar pone a 0 la versión de las filas que no la tienen. Con la columna a
+ * {@code NULL} las actualizaciones condicionales nunca coincidirían y
+ * {@code version + 1} seguiría siendo {@code NULL}. Las actualizaciones de
+ * {@link BookRepository} usan además {@code coalesce}, por si una fila llega sin
+ * versión después del arranque.
+ *
+ * Como {@link BookIdSequenceAligner}, no se deja para más tarde aunque el arranque
+ * sea perezoso: tiene que haber corrido antes de la primera escritura.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+public class BookVersionBackfill implements InitializingBean {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BookVersionBackfill(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        int rows = jdbcTemplate.update("update book set version = 0 where version is null");
+        if (rows > 0) {
+            log.info("Versión inicial 0 asignada a {} libros que no tenían", rows);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.dannycodev.bookstore;
+
+/**
+ * Vista inmutable de un libro para lecturas que solo muestran datos.
+ *
+ * Se construye directamente en la consulta JPQL ({@code select new ...}), así que
+ * Hibernate no crea entidades gestionadas, no guarda copias para el dirty checking
+ * y no tiene nada que revisar al hacer flush.
+ */
+public record BookView(Long id, String title, String author) {
+
+    public static BookView of(Book book) {
+        return new BookView(book.getId(), book.getTitle(), book.getAuthor());
+    }
+}
@@ -0,0 +1,255 @@
+package com.dannycodev.bookstore;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Escritura diferida para clientes que guardan libros de uno en uno.
+ *
+ * {@link #saveBook(Book)} y {@link #updateBook(Long, Book)} validan en el momento,
+ * encolan la escritura y devuelven un {@link CompletableFuture} enseguida. Un hilo
+ * vacía la cola por tamaño ({@code batch-size}) o por tiempo ({@code flush-interval})
+ * y aplica cada lote en una sola transacción, fusionando las actualizaciones
+ * repetidas de un mismo libro. Las actualizaciones que traen versión no se fusionan:
+ * se aplican de forma condicional y, si el libro cambió entretanto, su futuro falla
+ * con {@link org.springframework.dao.OptimisticLockingFailureException}. Si la cola
+ * está llena, quien escribe espera hasta {@code offer-timeout} y después recibe un
+ * futuro fallido.
+ *
+ * Se activa con {@code bookstore.write-behind.enabled=true}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "bookstore.write-behind", name = "enabled", havingValue = "true")
+public class BookWriteBehindQueue {
+
+    private final BookService bookService;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<PendingWrite> queue;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Duration offerTimeout;
+
+    // Encolar toma la lectura y cerrar la escritura: nada entra en la cola después
+    // de que el hilo que la vacía haya visto accepting a false
+    private final ReentrantReadWriteLock acceptLock = new ReentrantReadWriteLock();
+    private volatile boolean accepting = true;
+    private volatile boolean running = true;
+    private Thread flusher;
+
+    public BookWriteBehindQueue(BookService bookService,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${bookstore.write-behind.capacity:10000}") int capacity,
+                                @Value("${bookstore.write-behind.batch-size:500}") int batchSize,
+                                @Value("${bookstore.write-behind.flush-interval:50ms}") Duration flushInterval,
+                                @Value("${bookstore.write-behind.offer-timeout:1s}") Duration offerTimeout) {
+        this.bookService = bookService;
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.offerTimeout = offerTimeout;
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher = Thread.ofPlatform().name("book-write-behind").daemon().start(this::run);
+    }
+
+    /**
+     * Deja de aceptar escrituras y espera a que se apliquen todas las pendientes.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        acceptLock.writeLock().lock();
+        try {
+            accepting = false;
+        } finally {
+            acceptLock.writeLock().unlock();
+        }
+        running = false;
+        if (flusher != null) {
+            flusher.join();
+        }
+    }
+
+    public CompletableFuture<Book> saveBook(Book book) {
+        BookValidator.requireValid(book);
+        BookValidator.normalize(book);
+        return enqueue(new PendingWrite(null, book));
+    }
+
+    public CompletableFuture<Book> updateBook(Long id, Book nuevosDatos) {
+        BookValidator.requireValid(nuevosDatos);
+        Book datos = new Book(id, BookValidator.normalizeText(nuevosDatos.getTitle()),
+                BookValidator.normalizeText(nuevosDatos.getAuthor()), nuevosDatos.getVersion());
+        return enqueue(new PendingWrite(id, datos));
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    private CompletableFuture<Book> enqueue(PendingWrite write) {
+        acceptLock.readLock().lock();
+        try {
+            if (!accepting) {
+                throw new IllegalStateException("La cola de escritura diferida está cerrada");
+            }
+            if (!queue.offer(write, offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                return CompletableFuture.failedFuture(
+                        new RejectedExecutionException("La cola de escritura diferida está llena"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            acceptLock.readLock().unlock();
+        }
+        return write.future();
+    }
+
+    private void run() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                // Al interrumpir se aplica lo que ya se había sacado de la cola y se sigue vaciando
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void collect(List<PendingWrite> batch) throws InterruptedException {
+        PendingWrite first = queue.poll(flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + flushInterval.toNanos();
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                return;
+            }
+            PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    void flush(List<PendingWrite> batch) {
+        try {
+            Map<PendingWrite, Book> results = transactionTemplate.execute(status -> apply(batch));
+            batch.forEach(write -> write.future().complete(results.get(write)));
+        } catch (RuntimeException e) {
+            // Un libro inválido no debe tumbar el lote entero: se reintenta de uno en uno
+            log.warn("Falló un lote de {} escrituras diferidas; se aplican de una en una", batch.size(), e);
+            // Las altas revertidas pueden haber recibido id y versión; se limpian para que
+            // vuelvan a insertarse como altas
+            batch.stream().filter(write -> write.id() == null).forEach(write -> {
+                write.book().setId(null);
+                write.book().setVersion(null);
+            });
+            batch.forEach(this::flushOne);
+        }
+    }
+
+    private void flushOne(PendingWrite write) {
+        try {
+            Map<PendingWrite, Book> result = transactionTemplate.execute(status -> apply(List.of(write)));
+            write.future().complete(result.get(write));
+        } catch (RuntimeException e) {
+            write.future().completeExceptionally(e);
+        }
+    }
+
+    private Map<PendingWrite, Book> apply(List<PendingWrite> batch) {
+        List<PendingWrite> inserts = new ArrayList<>();
+        // Por cada libro solo cuenta la última actualización del lote
+        Map<Long, List<PendingWrite>> updatesById = new LinkedHashMap<>();
+        for (PendingWrite write : batch) {
+            if (write.id() == null) {
+                inserts.add(write);
+            } else {
+                updatesById.computeIfAbsent(write.id(), id -> new ArrayList<>()).add(write);
+            }
+        }
+
+        Map<PendingWrite, Book> results = new LinkedHashMap<>();
+        if (!inserts.isEmpty()) {
+            List<Book> saved = bookService.saveBooks(inserts.stream().map(PendingWrite::book).toList());
+            for (int i = 0; i < inserts.size(); i++) {
+                results.put(inserts.get(i), saved.get(i));
+            }
+        }
+        updatesById.forEach((id, writes) -> {
+            // Las actualizaciones sin versión seguidas se fusionan; las condicionales se
+            // aplican cada una en su turno para que un conflicto no quede tapado
+            List<PendingWrite> merged = new ArrayList<>();
+            for (PendingWrite write : writes) {
+                if (write.book().getVersion() == null) {
+                    merged.add(write);
+                    continue;
+                }
+                applyMerged(id, merged, results);
+                results.put(write, bookService.updateBook(id, write.book()));
+            }
+            applyMerged(id, merged, results);
+        });
+        return results;
+    }
+
+    private void applyMerged(Long id, List<PendingWrite> merged, Map<PendingWrite, Book> results) {
+        if (merged.isEmpty()) {
+            return;
+        }
+        Book updated = bookService.updateBook(id, merged.get(merged.size() - 1).book());
+        merged.forEach(write -> results.put(write, updated));
+        merged.clear();
+    }
+
+    record PendingWrite(Long id, Book book, CompletableFuture<Book> future) {
+
+        PendingWrite(Long id, Book book) {
+            this(id, book, new CompletableFuture<>());
+        }
+
+        // Cada escritura es única aunque lleve los mismos datos
+        @Override
+        public boolean equals(Object other) {
+            return this == other;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+}
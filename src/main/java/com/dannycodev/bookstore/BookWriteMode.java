@@ -0,0 +1,19 @@
+package com.dannycodev.bookstore;
+
+/**
+ * Cómo confirma {@link BookParallelWriter} los bloques de una escritura en paralelo.
+ */
+public enum BookWriteMode {
+
+    /**
+     * Se escriben todos los bloques o ninguno: si un libro no es válido no se escribe
+     * nada, y si falla un bloque se revierten todos.
+     */
+    ALL_OR_NOTHING,
+
+    /**
+     * Cada bloque se confirma por su cuenta; uno con libros inválidos o que falla al
+     * escribirse no impide que se guarden los demás.
+     */
+    PER_CHUNK
+}
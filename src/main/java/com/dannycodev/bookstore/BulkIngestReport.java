@@ -0,0 +1,14 @@
+package com.dannycodev.bookstore;
+
+/**
+ * Resumen de una carga masiva: filas insertadas, lotes enviados y tiempo total.
+ */
+public record BulkIngestReport(int rows, int chunks, long elapsedNanos) {
+
+    public double rowsPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return rows * 1_000_000_000d / elapsedNanos;
+    }
+}
@@ -0,0 +1,70 @@
+package com.dannycodev.bookstore;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.*;
+
+@DisplayName("Pruebas unitarias para BookAuthorIndex")
+class BookAuthorIndexTest {
+
+    private BookAuthorIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookAuthorIndex(true);
+        index.index(new Book(1L, "El otoño del patriarca", "Gabriel García Márquez"));
+        index.index(new Book(2L, "Crónica de una muerte anunciada", "Gabriel García Márquez"));
+        index.index(new Book(3L, "Ficciones", "Jorge Luis Borges"));
+        index.markReady();
+    }
+
+    @Test
+    void deberiaContarLibrosPorAutor() {
+        assertThat(index.count("Gabriel García Márquez")).hasValue(2);
+        assertThat(index.count("Nadie")).hasValue(0);
+    }
+
+    @Test
+    void deberiaMoverElLibroAlCambiarDeAutor() {
+        index.index(new Book(2L, "El Aleph", "Jorge Luis Borges"));
+
+        assertThat(index.count("Gabriel García Márquez")).hasValue(1);
+        assertThat(index.count("Jorge Luis Borges")).hasValue(2);
+    }
+
+    @Test
+    void deberiaOlvidarLosLibrosBorrados() {
+        index.remove(3L);
+
+        assertThat(index.count("Jorge Luis Borges")).hasValue(0);
+        assertThat(index.topAuthors(10)).hasValueSatisfying(top ->
+            assertThat(top).containsExactly(new AuthorBookCount("Gabriel García Márquez", 2)));
+    }
+
+    @Test
+    void deberiaOrdenarAutoresPorNumeroDeLibros() {
+        index.index(new Book(4L, "Rayuela", "Julio Cortázar"));
+
+        assertThat(index.topAuthors(2)).hasValueSatisfying(top ->
+            assertThat(top).containsExactly(
+                new AuthorBookCount("Gabriel García Márquez", 2),
+                new AuthorBookCount("Jorge Luis Borges", 1)));
+    }
+
+    @Test
+    void noDeberiaResponderHastaEstarCargado() {
+        index.clear();
+
+        assertThat(index.count("Jorge Luis Borges")).isEmpty();
+        assertThat(index.topAuthors(10)).isEmpty();
+    }
+
+    @Test
+    void noDeberiaResponderSiEstaDesactivado() {
+        BookAuthorIndex desactivado = new BookAuthorIndex(false);
+        desactivado.index(new Book(1L, "Ficciones", "Jorge Luis Borges"));
+        desactivado.markReady();
+
+        assertThat(desactivado.count("Jorge Luis Borges")).isEmpty();
+    }
+}
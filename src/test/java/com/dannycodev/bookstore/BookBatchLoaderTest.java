@@ -0,0 +1,125 @@
+package com.dannycodev.bookstore;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.StreamSupport;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Pruebas unitarias para BookBatchLoader")
+class BookBatchLoaderTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    // Ids de cada consulta IN
+    private final List<Set<Long>> consultas = new CopyOnWriteArrayList<>();
+
+    // Existen los libros con id menor que 100
+    private void baseDeDatos() {
+        when(bookRepository.findAllById(any())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            consultas.add(Set.copyOf(StreamSupport.stream(ids.spliterator(), false).toList()));
+            return StreamSupport.stream(ids.spliterator(), false)
+                    .filter(id -> id < 100)
+                    .map(id -> new Book(id, "Libro " + id, "Autor"))
+                    .toList();
+        });
+    }
+
+    @Test
+    @DisplayName("Las llamadas dentro de la ventana deben compartir una consulta IN")
+    void deberiaAgruparLlamadasSimultaneas() throws Exception {
+        baseDeDatos();
+        BookBatchLoader loader = new BookBatchLoader(bookRepository, Duration.ofMillis(300), 500);
+
+        List<CompletableFuture<Map<Long, Book>>> llamadas = new ArrayList<>();
+        for (long i = 0; i < 5; i++) {
+            List<Long> ids = List.of(i * 10 + 1, i * 10 + 2, 500 + i);
+            llamadas.add(CompletableFuture.supplyAsync(() -> loader.load(ids)));
+        }
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(llamadas.get(i).get(5, TimeUnit.SECONDS)).containsOnlyKeys(i * 10 + 1L, i * 10 + 2L);
+        }
+        assertThat(consultas).hasSize(1);
+        assertThat(consultas.get(0)).hasSize(15);
+        assertThat(loader.batchCount()).isOne();
+        assertThat(loader.requestedIdCount()).isEqualTo(15);
+    }
+
+    @Test
+    @DisplayName("Debe partir en varias consultas los lotes que superan el tamaño máximo")
+    void deberiaPartirLotesGrandes() {
+        baseDeDatos();
+        BookBatchLoader loader = new BookBatchLoader(bookRepository, Duration.ofMillis(20), 3);
+
+        Map<Long, Book> libros = loader.load(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 7L));
+
+        assertThat(libros).containsOnlyKeys(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+        assertThat(consultas).extracting(Set::size).containsExactlyInAnyOrder(3, 3, 1);
+    }
+
+    @Test
+    @DisplayName("Con ventana cero cada llamada debe hacer su propia consulta")
+    void deberiaConsultarSinEsperarConVentanaCero() {
+        baseDeDatos();
+        BookBatchLoader loader = new BookBatchLoader(bookRepository, Duration.ZERO, 500);
+
+        assertThat(loader.load(List.of(1L, 2L))).containsOnlyKeys(1L, 2L);
+        assertThat(loader.load(List.of(3L))).containsOnlyKeys(3L);
+        assertThat(consultas).containsExactly(Set.of(1L, 2L), Set.of(3L));
+    }
+
+    @Test
+    @DisplayName("Cada llamada debe recibir sus propias copias")
+    void deberiaDevolverCopias() throws Exception {
+        Book compartido = new Book(1L, "Ficciones", "Jorge Luis Borges");
+        when(bookRepository.findAllById(any())).thenReturn(List.of(compartido));
+        BookBatchLoader loader = new BookBatchLoader(bookRepository, Duration.ofMillis(200), 500);
+
+        CompletableFuture<Map<Long, Book>> otra = CompletableFuture.supplyAsync(() -> loader.load(List.of(1L)));
+        Map<Long, Book> propia = loader.load(List.of(1L));
+        propia.get(1L).setTitle("Modificado");
+
+        assertThat(otra.get(5, TimeUnit.SECONDS).get(1L).getTitle()).isEqualTo("Ficciones");
+        assertThat(compartido.getTitle()).isEqualTo("Ficciones");
+    }
+
+    @Test
+    @DisplayName("Si la consulta falla, debe fallar cada llamada del lote")
+    void deberiaPropagarElErrorATodos() {
+        when(bookRepository.findAllById(any())).thenThrow(new IllegalStateException("Base de datos caída"));
+        BookBatchLoader loader = new BookBatchLoader(bookRepository, Duration.ofMillis(50), 500);
+
+        CompletableFuture<Map<Long, Book>> otra = CompletableFuture.supplyAsync(() -> loader.load(List.of(2L)));
+
+        assertThatThrownBy(() -> loader.load(List.of(1L)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Base de datos caída");
+        assertThatThrownBy(() -> otra.get(5, TimeUnit.SECONDS)).hasRootCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("No debe consultar si no se pide ningún id")
+    void noDeberiaConsultarSinIds() {
+        BookBatchLoader loader = new BookBatchLoader(bookRepository, Duration.ofMillis(50), 500);
+
+        assertThat(loader.load(List.of())).isEmpty();
+        verifyNoInteractions(bookRepository);
+    }
+}
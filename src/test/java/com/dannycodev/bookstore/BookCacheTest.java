@@ -0,0 +1,159 @@
+package com.dannycodev.bookstore;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Pruebas de concurrencia para BookCache")
+class BookCacheTest {
+
+    @Test
+    @DisplayName("Una invalidación durante una carga en curso no debe dejar el valor viejo en caché")
+    void invalidacionDuranteCarga_noDeberiaDejarValorViejo() throws Exception {
+        BookCache cache = new BookCache(100, Duration.ofMinutes(10));
+        AtomicReference<Book> baseDeDatos = new AtomicReference<>(new Book(1L, "Viejo", "Autor"));
+        CountDownLatch cargaIniciada = new CountDownLatch(1);
+        CountDownLatch continuarCarga = new CountDownLatch(1);
+
+        // Lector lento: lee el valor viejo y se queda esperando antes de guardarlo
+        CompletableFuture<Optional<Book>> lector = CompletableFuture.supplyAsync(() -> cache.get(1L, id -> {
+            Book leido = baseDeDatos.get();
+            cargaIniciada.countDown();
+            await(continuarCarga);
+            return Optional.of(leido);
+        }));
+        assertThat(cargaIniciada.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Escritor: actualiza la "base de datos" e invalida mientras la carga sigue en curso
+        CompletableFuture<Void> escritor = CompletableFuture.runAsync(() -> {
+            baseDeDatos.set(new Book(1L, "Nuevo", "Autor"));
+            cache.invalidate(1L);
+        });
+        continuarCarga.countDown();
+        escritor.get(5, TimeUnit.SECONDS);
+
+        assertThat(lector.get(5, TimeUnit.SECONDS)).map(Book::getTitle).contains("Viejo");
+        assertThat(cache.get(1L, id -> Optional.of(baseDeDatos.get())))
+                .map(Book::getTitle)
+                .contains("Nuevo");
+    }
+
+    @Test
+    @DisplayName("Las lecturas simultáneas de un id deben compartir una consulta, aunque no exista")
+    void lecturasSimultaneas_deberianCompartirUnaConsulta() throws Exception {
+        BookCache cache = new BookCache(100, Duration.ofMinutes(10));
+        AtomicInteger consultas = new AtomicInteger();
+        CountDownLatch cargaIniciada = new CountDownLatch(1);
+        CountDownLatch continuarCarga = new CountDownLatch(1);
+        Function<Long, Optional<Book>> baseDeDatos = id -> {
+            consultas.incrementAndGet();
+            cargaIniciada.countDown();
+            await(continuarCarga);
+            return Optional.empty();
+        };
+
+        // Hilos de plataforma: la carga retiene su hilo dentro del compute de Caffeine
+        ExecutorService lectores = Executors.newFixedThreadPool(21);
+        List<Future<Optional<Book>>> lecturas = new ArrayList<>();
+        lecturas.add(lectores.submit(() -> cache.get(7L, baseDeDatos)));
+        assertThat(cargaIniciada.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 20; i++) {
+            lecturas.add(lectores.submit(() -> cache.get(7L, baseDeDatos)));
+        }
+        awaitCoalesced(cache, 20);
+        continuarCarga.countDown();
+
+        for (Future<Optional<Book>> lectura : lecturas) {
+            assertThat(lectura.get(5, TimeUnit.SECONDS)).isEmpty();
+        }
+        lectores.close();
+        assertThat(consultas).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Si la consulta compartida falla, todos los que esperaban deben recibir el error")
+    void consultaCompartidaFallida_deberiaLlegarATodos() throws Exception {
+        BookCache cache = new BookCache(100, Duration.ofMinutes(10));
+        CountDownLatch cargaIniciada = new CountDownLatch(1);
+        CountDownLatch continuarCarga = new CountDownLatch(1);
+        Function<Long, Optional<Book>> baseDeDatos = id -> {
+            cargaIniciada.countDown();
+            await(continuarCarga);
+            throw new IllegalStateException("Base de datos caída");
+        };
+
+        CompletableFuture<Optional<Book>> primero = CompletableFuture.supplyAsync(() -> cache.get(3L, baseDeDatos));
+        assertThat(cargaIniciada.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Optional<Book>> segundo = CompletableFuture.supplyAsync(() -> cache.get(3L, baseDeDatos));
+        awaitCoalesced(cache, 1);
+        continuarCarga.countDown();
+
+        for (CompletableFuture<Optional<Book>> lectura : List.of(primero, segundo)) {
+            assertThatThrownBy(() -> lectura.get(5, TimeUnit.SECONDS))
+                    .hasRootCauseInstanceOf(IllegalStateException.class)
+                    .hasRootCauseMessage("Base de datos caída");
+        }
+        assertThat(cache.get(3L, id -> Optional.of(new Book(3L, "Ficciones", "Jorge Luis Borges")))).isPresent();
+    }
+
+    @Test
+    @DisplayName("putAll no debe guardar lo leído antes de una invalidación")
+    void putAll_noDeberiaGuardarLecturasAnterioresAUnaInvalidacion() {
+        BookCache cache = new BookCache(100, Duration.ofMinutes(10));
+
+        long marca = cache.invalidationMark();
+        cache.invalidate(1L);
+        cache.putAll(Map.of(1L, new Book(1L, "Viejo", "Autor")), marca);
+        assertThat(cache.getIfPresent(1L)).isEmpty();
+
+        cache.putAll(Map.of(1L, new Book(1L, "Nuevo", "Autor")), cache.invalidationMark());
+        assertThat(cache.getIfPresent(1L)).map(Book::getTitle).contains("Nuevo");
+    }
+
+    @Test
+    @DisplayName("Debe desalojar entradas al superar el tamaño máximo")
+    void deberiaDesalojarAlSuperarTamanoMaximo() {
+        BookCache cache = new BookCache(10, Duration.ofMinutes(10));
+
+        for (long id = 1; id <= 100; id++) {
+            long actual = id;
+            cache.get(id, key -> Optional.of(new Book(actual, "Libro " + actual, "Autor")));
+        }
+        cache.cleanUp();
+
+        assertThat(cache.evictionCount()).isGreaterThan(0);
+        assertThat(cache.missCount()).isEqualTo(100);
+    }
+
+    private static void awaitCoalesced(BookCache cache, long lecturas) {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (cache.coalescedCount() < lecturas) {
+            assertThat(System.nanoTime()).as("tiempo de espera agotado").isLessThan(limite);
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
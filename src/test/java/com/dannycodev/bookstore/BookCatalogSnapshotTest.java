@@ -0,0 +1,103 @@
+package com.dannycodev.bookstore;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.*;
+
+@DisplayName("Pruebas unitarias para BookCatalogSnapshot")
+class BookCatalogSnapshotTest {
+
+    private BookCatalogSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        // Sin compactar en segundo plano: las pruebas llaman a compact()
+        snapshot = new BookCatalogSnapshot(true, Integer.MAX_VALUE);
+        BookCatalogSnapshot.Loader loader = snapshot.load();
+        loader.add(new Book(10L, "El otoño del patriarca", "Gabriel García Márquez", 0L));
+        loader.add(new Book(20L, "Ficciones", "Jorge Luis Borges", 3L));
+        loader.add(new Book(30L, "Pedro Páramo", "Juan Rulfo", 1L));
+        loader.publish();
+    }
+
+    @Test
+    void deberiaLeerLibrosDeLaInstantanea() {
+        assertThat(snapshot.isReady()).isTrue();
+        assertThat(snapshot.find(20L)).contains(new Book(20L, "Ficciones", "Jorge Luis Borges", 3L));
+        assertThat(snapshot.findView(10L)).contains(new BookView(10L, "El otoño del patriarca", "Gabriel García Márquez"));
+        assertThat(snapshot.find(25L)).isEmpty();
+        assertThat(snapshot.offHeapBytes()).isPositive();
+    }
+
+    @Test
+    void deberiaListarPorCursor() {
+        assertThat(snapshot.books(10L, 5)).extracting(Book::getId).containsExactly(20L, 30L);
+        assertThat(snapshot.views(0L, 2)).extracting(BookView::id).containsExactly(10L, 20L);
+        assertThat(snapshot.views(30L, 2)).isEmpty();
+    }
+
+    @Test
+    void deberiaVerLosCambiosPendientesAntesDeCompactar() {
+        snapshot.put(new Book(15L, "Rayuela", "Julio Cortázar", 0L));
+        snapshot.put(new Book(20L, "El Aleph", "Jorge Luis Borges", 4L));
+        snapshot.remove(30L);
+
+        assertThat(snapshot.books(0L, 10)).extracting(Book::getId, Book::getTitle).containsExactly(
+                tuple(10L, "El otoño del patriarca"), tuple(15L, "Rayuela"), tuple(20L, "El Aleph"));
+        assertThat(snapshot.find(30L)).isEmpty();
+        assertThat(snapshot.pendingChanges()).isEqualTo(3);
+        assertThat(snapshot.size()).isEqualTo(3);
+    }
+
+    @Test
+    void deberiaFundirLosCambiosAlCompactar() {
+        snapshot.put(new Book(40L, "Cien años de soledad", "Gabriel García Márquez", 0L));
+        snapshot.put(new Book(20L, "El Aleph", "Jorge Luis Borges", 4L));
+        snapshot.remove(10L);
+
+        snapshot.compact();
+
+        assertThat(snapshot.pendingChanges()).isZero();
+        assertThat(snapshot.size()).isEqualTo(3);
+        assertThat(snapshot.books(0L, 10)).containsExactly(
+                new Book(20L, "El Aleph", "Jorge Luis Borges", 4L),
+                new Book(30L, "Pedro Páramo", "Juan Rulfo", 1L),
+                new Book(40L, "Cien años de soledad", "Gabriel García Márquez", 0L));
+    }
+
+    @Test
+    void deberiaIncrementarLaVersionEnActualizacionesSinVersion() {
+        snapshot.put(new Book(30L, "Llano en llamas", "Juan Rulfo"));
+
+        assertThat(snapshot.find(30L)).hasValueSatisfying(libro -> assertThat(libro.getVersion()).isEqualTo(2L));
+    }
+
+    @Test
+    void deberiaIgnorarConfirmacionesQueLleganFueraDeOrden() {
+        snapshot.put(new Book(20L, "El Aleph", "Jorge Luis Borges", 5L));
+        snapshot.put(new Book(20L, "Artificios", "Jorge Luis Borges", 4L));
+        snapshot.remove(30L);
+        snapshot.put(new Book(30L, "Llano en llamas", "Juan Rulfo", 2L));
+
+        assertThat(snapshot.find(20L)).hasValueSatisfying(libro -> assertThat(libro.getTitle()).isEqualTo("El Aleph"));
+        assertThat(snapshot.find(30L)).isEmpty();
+    }
+
+    @Test
+    void deberiaDevolverCopias() {
+        snapshot.put(new Book(15L, "Rayuela", "Julio Cortázar", 0L));
+        snapshot.find(15L).orElseThrow().setTitle("Modificado");
+
+        assertThat(snapshot.find(15L)).hasValueSatisfying(libro -> assertThat(libro.getTitle()).isEqualTo("Rayuela"));
+    }
+
+    @Test
+    void deberiaIgnorarEscriturasSiEstaDesactivada() {
+        BookCatalogSnapshot desactivada = new BookCatalogSnapshot(false, 10);
+        desactivada.load().publish();
+        desactivada.put(new Book(1L, "Ficciones", "Jorge Luis Borges", 0L));
+
+        assertThat(desactivada.isReady()).isFalse();
+        assertThat(desactivada.pendingChanges()).isZero();
+    }
+}
@@ -0,0 +1,139 @@
+package com.dannycodev.bookstore;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:catalog-transfer;DB_CLOSE_DELAY=-1",
+    "bookstore.ingest.chunk-size=2"
+})
+@DisplayName("Exportación e importación del catálogo")
+class BookCatalogTransferTest {
+
+    @Autowired
+    private BookCatalogTransfer transfer;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @TempDir
+    private Path dir;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void deberiaExportarUnLibroPorLinea() throws Exception {
+        List<Book> libros = bookRepository.saveAll(List.of(
+            new Book(null, "Ficciones", "Jorge Luis Borges"),
+            new Book(null, "Rayuela", "Julio Cortázar")));
+        Path fichero = dir.resolve("catalogo.ndjson");
+
+        BookTransferReport report = transfer.exportTo(fichero);
+
+        assertThat(report.rows()).isEqualTo(2);
+        assertThat(Files.readAllLines(fichero, StandardCharsets.UTF_8)).containsExactly(
+            "{\"id\":" + libros.get(0).getId() + ",\"title\":\"Ficciones\",\"author\":\"Jorge Luis Borges\"}",
+            "{\"id\":" + libros.get(1).getId() + ",\"title\":\"Rayuela\",\"author\":\"Julio Cortázar\"}");
+    }
+
+    @Test
+    void deberiaImportarEnBloquesYDescartarLosInvalidos() throws Exception {
+        Path fichero = dir.resolve("entrada.ndjson");
+        Files.writeString(fichero, """
+            {"id":7,"title":"Ficciones","author":"Jorge Luis Borges"}
+            {"title":"  Rayuela ","author":"Julio   Cortázar"}
+            {"title":"","author":"Nadie"}
+            {"title":"El Aleph","author":"Jorge Luis Borges"}
+            {"title":"Sin autor"}
+            """);
+
+        BookTransferReport report = transfer.importFrom(fichero);
+
+        assertThat(report.rows()).isEqualTo(3);
+        assertThat(report.rejected()).isEqualTo(2);
+        assertThat(report.rejections()).extracting(BookRejection::index).containsExactly(2, 4);
+        assertThat(bookRepository.findAll()).extracting(Book::getTitle)
+            .containsExactlyInAnyOrder("Ficciones", "Rayuela", "El Aleph");
+        assertThat(bookRepository.findByAuthorOrderByIdAsc("Julio Cortázar")).hasSize(1);
+    }
+
+    @Test
+    void deberiaDescartarLasLineasNulasOVacias() throws Exception {
+        Path fichero = dir.resolve("nulos.ndjson");
+        Files.writeString(fichero, """
+            {"title":"Ficciones","author":"Jorge Luis Borges"}
+            null
+            ""
+            {"title":"Rayuela","author":"Julio Cortázar"}
+            """);
+
+        BookTransferReport report = transfer.importFrom(fichero);
+
+        assertThat(report.rows()).isEqualTo(2);
+        assertThat(report.rejected()).isEqualTo(2);
+        assertThat(report.rejections()).extracting(BookRejection::index).containsExactly(1, 2);
+        assertThat(bookRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void deberiaRecuperarElCatalogoExportado() throws Exception {
+        bookRepository.saveAll(List.of(
+            new Book(null, "Ficciones", "Jorge Luis Borges"),
+            new Book(null, "Rayuela", "Julio Cortázar"),
+            new Book(null, "El Aleph", "Jorge Luis Borges")));
+        Path fichero = dir.resolve("copia.ndjson");
+        transfer.exportTo(fichero);
+        bookRepository.deleteAllInBatch();
+
+        BookTransferReport report = transfer.importFrom(fichero);
+
+        assertThat(report.rows()).isEqualTo(3);
+        assertThat(bookRepository.countByAuthor("Jorge Luis Borges")).isEqualTo(2);
+    }
+
+    @Test
+    void deberiaDescartarComoDuplicadosLosLibrosQueYaExisten() throws Exception {
+        bookRepository.saveAll(List.of(
+            new Book(null, "Ficciones", "Jorge Luis Borges"),
+            new Book(null, "Rayuela", "Julio Cortázar"),
+            new Book(null, "El Aleph", "Jorge Luis Borges")));
+        Path fichero = dir.resolve("reimportar.ndjson");
+        transfer.exportTo(fichero);
+        Files.writeString(fichero, """
+            {"title":"Bestiario","author":"Julio Cortázar"}
+            {"title":"Bestiario","author":"Julio Cortázar"}
+            """, StandardOpenOption.APPEND);
+
+        BookTransferReport report = transfer.importFrom(fichero);
+
+        assertThat(report.rows()).isEqualTo(1);
+        assertThat(report.rejected()).isEqualTo(4);
+        assertThat(report.rejections()).extracting(BookRejection::index).containsExactly(0, 1, 2, 4);
+        assertThat(report.rejections().get(0).messages())
+            .containsExactly("Ya existe un libro con el mismo título y autor");
+        assertThat(bookRepository.count()).isEqualTo(4);
+    }
+
+    @Test
+    void deberiaRechazarUnFicheroMalFormado() throws Exception {
+        Path fichero = dir.resolve("roto.ndjson");
+        Files.writeString(fichero, "{\"title\":\"Ficciones\",\"author\":\"Borges\"}\n{\"title\":");
+
+        assertThatThrownBy(() -> transfer.importFrom(fichero))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("posición 1");
+    }
+}
@@ -0,0 +1,127 @@
+package com.dannycodev.bookstore;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Sin espera ante huecos: los que dejan las transacciones revertidas de otras pruebas
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:change-log;DB_CLOSE_DELAY=-1",
+        "bookstore.changes.settle-time=0s"
+})
+@DisplayName("Pruebas del outbox de cambios")
+class BookChangeLogTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookReactiveService reactiveService;
+
+    @Autowired
+    private BookChangeRepository bookChangeRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private long desde;
+
+    @BeforeEach
+    void setUp() {
+        desde = bookChangeRepository.findAll().stream().mapToLong(BookChange::getSeq).max().orElse(0);
+    }
+
+    @Test
+    @DisplayName("Debe registrar altas, actualizaciones y borrados en orden")
+    void deberiaRegistrarCadaEscrituraEnOrden() {
+        Book libro = bookService.saveBook(new Book(null, " 1984 ", "George Orwell"));
+        bookService.updateBook(libro.getId(), new Book(null, "Animal Farm", "George Orwell"));
+        bookService.modifyBook(libro.getId(), b -> b.toBuilder().title("Animal Farm (2ª ed.)").build());
+        bookService.deleteBookById(libro.getId());
+
+        BookChangePage page = bookService.getChangesSince(desde, 100);
+
+        assertThat(page.changes()).extracting(BookChange::getType).containsExactly(
+                BookChangeType.CREATED, BookChangeType.UPDATED, BookChangeType.UPDATED, BookChangeType.DELETED);
+        assertThat(page.changes()).allMatch(change -> change.getBookId().equals(libro.getId()));
+        assertThat(page.changes().get(0).getTitle()).isEqualTo("1984");
+        assertThat(page.changes().get(2).getTitle()).isEqualTo("Animal Farm (2ª ed.)");
+        assertThat(page.changes().get(2).getBookVersion()).isEqualTo(2);
+        assertThat(page.nextSequence()).isEqualTo(page.changes().get(3).getSeq());
+        assertThat(bookService.getChangesSince(page.nextSequence(), 100).changes()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Debe registrar las cargas masivas y las altas reactivas")
+    void deberiaRegistrarCargasMasivasYAltasReactivas() {
+        bookService.ingestBooks(libros("Masivo", 30));
+        reactiveService.saveBooks(libros("Reactivo", 20)).blockLast();
+
+        List<BookChange> changes = leerTodo(desde, 7);
+
+        assertThat(changes).hasSize(50).allMatch(change -> change.getType() == BookChangeType.CREATED);
+        assertThat(changes).extracting(BookChange::getSeq).isSorted().doesNotHaveDuplicates();
+        assertThat(changes).filteredOn(change -> change.getTitle().startsWith("Reactivo")).hasSize(20);
+    }
+
+    @Test
+    @DisplayName("No debe registrar escrituras revertidas")
+    void noDeberiaRegistrarEscriturasRevertidas() {
+        transactionTemplate.executeWithoutResult(status -> {
+            bookService.saveBook(new Book(null, "Rayuela", "Julio Cortázar"));
+            status.setRollbackOnly();
+        });
+
+        assertThat(bookService.getChangesSince(desde, 100).changes()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Debe esperar ante un hueco en la secuencia hasta que se asiente")
+    void deberiaDetenerseEnUnHuecoReciente() {
+        transactionTemplate.executeWithoutResult(status -> {
+            bookService.saveBook(new Book(null, "Rayuela", "Julio Cortázar"));
+            status.setRollbackOnly();
+        });
+        Book libro = bookService.saveBook(new Book(null, "Ficciones", "Jorge Luis Borges"));
+
+        BookChangePage reciente = new BookChangeLog(bookChangeRepository, Duration.ofHours(1)).changesSince(desde, 100);
+        BookChangePage asentado = transactionTemplate.execute(status ->
+                new BookChangeLog(bookChangeRepository, Duration.ZERO).changesSince(desde, 100));
+
+        assertThat(reciente.changes()).isEmpty();
+        assertThat(reciente.nextSequence()).isEqualTo(desde);
+        assertThat(asentado.changes()).extracting(BookChange::getBookId).containsExactly(libro.getId());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar parámetros fuera de rango")
+    void deberiaRechazarParametrosInvalidos() {
+        assertThatIllegalArgumentException().isThrownBy(() -> bookService.getChangesSince(-1, 10));
+        assertThatIllegalArgumentException().isThrownBy(() -> bookService.getChangesSince(0, 0));
+    }
+
+    private List<BookChange> leerTodo(long desde, int tamañoDePagina) {
+        List<BookChange> todos = new ArrayList<>();
+        BookChangePage page;
+        do {
+            page = bookService.getChangesSince(desde, tamañoDePagina);
+            todos.addAll(page.changes());
+            desde = page.nextSequence();
+        } while (!page.changes().isEmpty());
+        return todos;
+    }
+
+    private static List<Book> libros(String prefijo, int cantidad) {
+        return IntStream.range(0, cantidad)
+            .mapToObj(i -> new Book(null, prefijo + " " + i, "Autor " + i))
+            .toList();
+    }
+}
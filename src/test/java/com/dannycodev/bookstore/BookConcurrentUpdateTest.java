@@ -0,0 +1,100 @@
+package com.dannycodev.bookstore;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:concurrent-update;DB_CLOSE_DELAY=-1")
+@DisplayName("Actualizaciones concurrentes de un mismo libro")
+class BookConcurrentUpdateTest {
+
+    private static final int HILOS = 8;
+    private static final int CAMBIOS_POR_HILO = 50;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private Long id;
+
+    @BeforeEach
+    void setUp() {
+        id = bookService.saveBook(new Book(null, "0", "Contador")).getId();
+    }
+
+    @Test
+    @DisplayName("No debe perder ningún incremento hecho con modifyBook")
+    void noDeberiaPerderIncrementos() throws Exception {
+        AtomicInteger aplicados = new AtomicInteger();
+
+        ejecutarEnParalelo(() -> {
+            try {
+                bookService.modifyBook(id, libro -> libro.toBuilder()
+                        .title(String.valueOf(Integer.parseInt(libro.getTitle()) + 1))
+                        .build());
+                aplicados.incrementAndGet();
+            } catch (OptimisticLockingFailureException e) {
+                // Se agotaron los reintentos: ese cambio no se aplica, pero tampoco pisa a otro
+            }
+        });
+
+        Book libro = bookRepository.findById(id).orElseThrow();
+        assertThat(aplicados.get()).isPositive();
+        assertThat(Integer.parseInt(libro.getTitle())).isEqualTo(aplicados.get());
+        assertThat(libro.getVersion()).isEqualTo(aplicados.get());
+    }
+
+    @Test
+    @DisplayName("Con la misma versión leída, solo una actualización condicional gana")
+    void soloUnaActualizacionCondicionalGana() throws Exception {
+        Long version = bookRepository.findById(id).orElseThrow().getVersion();
+        AtomicInteger ganadores = new AtomicInteger();
+        AtomicInteger conflictos = new AtomicInteger();
+
+        ejecutarEnParalelo(() -> {
+            try {
+                bookService.updateBook(id, version, new Book(null, Thread.currentThread().getName(), "Contador"));
+                ganadores.incrementAndGet();
+            } catch (OptimisticLockingFailureException e) {
+                conflictos.incrementAndGet();
+            }
+        });
+
+        assertThat(ganadores.get()).isEqualTo(1);
+        assertThat(conflictos.get()).isEqualTo(HILOS * CAMBIOS_POR_HILO - 1);
+        assertThat(bookRepository.findById(id).orElseThrow().getVersion()).isEqualTo(version + 1);
+    }
+
+    private void ejecutarEnParalelo(Runnable cambio) throws Exception {
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<?>> hilos = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(HILOS)) {
+            for (int h = 0; h < HILOS; h++) {
+                hilos.add(executor.submit(() -> {
+                    salida.await();
+                    for (int i = 0; i < CAMBIOS_POR_HILO; i++) {
+                        cambio.run();
+                    }
+                    return null;
+                }));
+            }
+            salida.countDown();
+            for (Future<?> hilo : hilos) {
+                hilo.get();
+            }
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.dannycodev.bookstore;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(BookController.class)
+@DisplayName("Pruebas de la API REST de libros")
+class BookControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private BookService bookService;
+
+    @MockitoBean
+    private BookCatalogTransfer bookCatalogTransfer;
+
+    private Book libroValido;
+
+    @BeforeEach
+    void setUp() {
+        libroValido = Book.builder()
+                .id(1L)
+                .title("1984")
+                .author("George Orwell")
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Consultar libros")
+    class ConsultarLibros {
+
+        @Test
+        void deberiaRetornarLibroExistente() throws Exception {
+            when(bookService.getBookById(1L)).thenReturn(Optional.of(libroValido));
+
+            mockMvc.perform(get("/books/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("1984"))
+                .andExpect(jsonPath("$.author").value("George Orwell"));
+        }
+
+        @Test
+        void deberiaRetornar404SiLibroNoExiste() throws Exception {
+            when(bookService.getBookById(99L)).thenReturn(Optional.empty());
+
+            mockMvc.perform(get("/books/99"))
+                .andExpect(status().isNotFound());
+        }
+
+        @Test
+        void deberiaRetornarVariosLibrosPorId() throws Exception {
+            when(bookService.getBooksByIds(List.of(1L, 99L))).thenReturn(List.of(libroValido));
+
+            mockMvc.perform(get("/books/by-ids").param("ids", "1,99"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("1984"));
+        }
+
+        @Test
+        void deberiaListarPorPaginas() throws Exception {
+            when(bookService.getBookViewsPage(5L, 1)).thenReturn(new BookPage<>(List.of(BookView.of(libroValido)), 1L));
+
+            mockMvc.perform(get("/books").param("after", "5").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books[0].id").value(1))
+                .andExpect(jsonPath("$.nextCursor").value(1));
+        }
+
+        @Test
+        void deberiaListarCambiosDesdeUnaSecuencia() throws Exception {
+            BookChange alta = new BookChange(8L, BookChangeType.CREATED, 1L, "1984", "George Orwell", 0L, Instant.EPOCH);
+            when(bookService.getChangesSince(7L, 100)).thenReturn(new BookChangePage(List.of(alta), 8L));
+
+            mockMvc.perform(get("/books/changes").param("since", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].type").value("CREATED"))
+                .andExpect(jsonPath("$.changes[0].bookId").value(1))
+                .andExpect(jsonPath("$.nextSequence").value(8));
+        }
+
+        @Test
+        void deberiaListarAutoresConMasLibros() throws Exception {
+            when(bookService.getTopAuthors(2)).thenReturn(List.of(new AuthorBookCount("George Orwell", 3)));
+
+            mockMvc.perform(get("/books/authors").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].author").value("George Orwell"))
+                .andExpect(jsonPath("$[0].books").value(3));
+        }
+    }
+
+    @Nested
+    @DisplayName("Escribir libros")
+    class EscribirLibros {
+
+        @Test
+        void deberiaImportarCatalogoEnNdjson() throws Exception {
+            when(bookCatalogTransfer.importFrom(any(java.io.InputStream.class)))
+                .thenReturn(new BookTransferReport(2, 0, List.of(), 1_000));
+
+            mockMvc.perform(post("/books/import")
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .content("{\"title\":\"1984\",\"author\":\"George Orwell\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows").value(2));
+        }
+
+        @Test
+        void deberiaCrearLibro() throws Exception {
+            when(bookService.saveBook(any(Book.class))).thenReturn(libroValido);
+
+            mockMvc.perform(post("/books")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"title\":\"1984\",\"author\":\"George Orwell\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(1));
+        }
+
+        @Test
+        void deberiaCargarLibrosEnBloque() throws Exception {
+            when(bookService.ingestBooks(anyList())).thenReturn(new BulkIngestReport(2, 1, 1_000_000L));
+
+            mockMvc.perform(post("/books/bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("[{\"title\":\"A\",\"author\":\"B\"},{\"title\":\"C\",\"author\":\"D\"}]"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.rows").value(2));
+        }
+
+        @Test
+        void deberiaCargarLibrosEnParaleloPorBloques() throws Exception {
+            when(bookService.saveBooksInParallel(anyList(), eq(BookWriteMode.PER_CHUNK))).thenReturn(
+                    new BookParallelWriteReport(BookWriteMode.PER_CHUNK, 2,
+                            List.of(new BookChunkResult(0, 0, 2, true, List.of(), null, 1_000L)), 1_000L));
+
+            mockMvc.perform(post("/books/bulk/parallel").param("mode", "PER_CHUNK")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("[{\"title\":\"A\",\"author\":\"B\"},{\"title\":\"C\",\"author\":\"D\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.chunks[0].committed").value(true))
+                .andExpect(jsonPath("$.committedRows").value(2));
+        }
+
+        @Test
+        void deberiaRetornar400SiDatosInvalidos() throws Exception {
+            when(bookService.saveBook(any(Book.class)))
+                    .thenThrow(new IllegalArgumentException("El libro debe tener un título válido"));
+
+            mockMvc.perform(post("/books")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"title\":\"\",\"author\":\"George Orwell\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("El libro debe tener un título válido"));
+        }
+
+        @Test
+        void deberiaRetornar409SiElLibroYaExiste() throws Exception {
+            when(bookService.saveBook(any(Book.class))).thenThrow(new DataIntegrityViolationException(
+                    "Unique index or primary key violation: \"PUBLIC.UK_BOOK_TITLE_AUTHOR_INDEX_1\""));
+
+            mockMvc.perform(post("/books")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"title\":\"1984\",\"author\":\"George Orwell\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.detail").value("Ya existe un libro con ese título y autor"));
+        }
+
+        @Test
+        void deberiaRetornar404AlActualizarLibroInexistente() throws Exception {
+            when(bookService.updateBook(eq(99L), any(Book.class)))
+                    .thenThrow(new BookNotFoundException("No se puede actualizar: el libro no existe"));
+
+            mockMvc.perform(put("/books/99")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"title\":\"1984\",\"author\":\"George Orwell\"}"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.detail").value("No se puede actualizar: el libro no existe"));
+        }
+
+        @Test
+        void deberiaRetornar409SiLaVersionYaNoEsLaActual() throws Exception {
+            when(bookService.updateBook(eq(1L), any(Book.class)))
+                    .thenThrow(new OptimisticLockingFailureException("El libro 1 ha cambiado desde la versión 3"));
+
+            mockMvc.perform(put("/books/1")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"title\":\"1984\",\"author\":\"George Orwell\",\"version\":3}"))
+                .andExpect(status().isConflict());
+        }
+
+        @Test
+        void deberiaEliminarLibro() throws Exception {
+            mockMvc.perform(delete("/books/1"))
+                .andExpect(status().isNoContent());
+
+            verify(bookService).deleteBookById(1L);
+        }
+    }
+}
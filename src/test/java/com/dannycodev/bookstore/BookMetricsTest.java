@@ -0,0 +1,46 @@
+package com.dannycodev.bookstore;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest
+@DisplayName("Pruebas de las métricas de la aplicación")
+class BookMetricsTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void deberiaMedirLasLlamadasAlServicioYAlRepositorio() {
+        long altas = serviceCalls("saveBook");
+        long lecturas = serviceCalls("getBookById");
+
+        Book guardado = bookService.saveBook(new Book(null, "Rayuela", "Julio Cortázar"));
+        bookService.getBookById(guardado.getId());
+
+        assertThat(serviceCalls("saveBook")).isEqualTo(altas + 1);
+        assertThat(serviceCalls("getBookById")).isEqualTo(lecturas + 1);
+        assertThat(registry.get("spring.data.repository.invocations").tag("method", "save").timer().count())
+            .isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void deberiaPublicarCacheEHibernate() {
+        assertThat(registry.find("cache.gets").tag("cache", "books").meters()).isNotEmpty();
+        assertThat(registry.find("hibernate.statements").meters()).isNotEmpty();
+        assertThat(registry.find("bookstore.search.index.books").gauge()).isNotNull();
+    }
+
+    private long serviceCalls(String method) {
+        var timer = registry.find("bookstore.service").tag("method", method).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
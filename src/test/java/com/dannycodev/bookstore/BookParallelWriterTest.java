@@ -0,0 +1,116 @@
+package com.dannycodev.bookstore;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:parallel-write;DB_CLOSE_DELAY=-1",
+        "bookstore.parallel-write.chunk-size=100",
+        "bookstore.parallel-write.threads=4"
+})
+@DisplayName("Escritura en paralelo por bloques")
+class BookParallelWriterTest {
+
+    // Más largo que la columna title: el INSERT falla en la base de datos
+    private static final String TITULO_DEMASIADO_LARGO = "x".repeat(300);
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Debe guardar todos los bloques y normalizar los libros")
+    void deberiaGuardarTodosLosBloques() {
+        List<Book> libros = libros(1_050);
+        libros.get(0).setTitle("  Libro   0 ");
+
+        BookParallelWriteReport report = bookService.saveBooksInParallel(libros, BookWriteMode.ALL_OR_NOTHING);
+
+        assertThat(report.allCommitted()).isTrue();
+        assertThat(report.chunks()).hasSize(11);
+        assertThat(report.chunks().get(10).rows()).isEqualTo(50);
+        assertThat(report.committedRows()).isEqualTo(1_050);
+        assertThat(bookRepository.count()).isEqualTo(1_050);
+        assertThat(bookService.getBookById(libros.get(0).getId()))
+            .hasValueSatisfying(libro -> assertThat(libro.getTitle()).isEqualTo("Libro 0"));
+        assertThat(bookService.searchBooks("libro 1049", 10)).extracting(Book::getId).contains(libros.get(1_049).getId());
+    }
+
+    @Test
+    @DisplayName("Todo o nada: un libro inválido impide escribir cualquier bloque")
+    void todoONadaDeberiaRechazarLibroInvalido() {
+        List<Book> libros = libros(500);
+        libros.get(321).setAuthor(" ");
+
+        assertThatIllegalArgumentException()
+            .isThrownBy(() -> bookService.saveBooksInParallel(libros, BookWriteMode.ALL_OR_NOTHING))
+            .withMessageContaining("posición 321");
+        assertThat(bookRepository.count()).isZero();
+    }
+
+    @Test
+    @Timeout(30)
+    @DisplayName("Todo o nada: un libro repetido en otro bloque debe rechazarse sin bloquear los hilos")
+    void todoONadaDeberiaRechazarLibroRepetidoEntreBloques() {
+        List<Book> libros = libros(500);
+        libros.get(450).setTitle("  Libro 10 ");
+        libros.get(450).setAuthor(libros.get(10).getAuthor());
+
+        assertThatIllegalArgumentException()
+            .isThrownBy(() -> bookService.saveBooksInParallel(libros, BookWriteMode.ALL_OR_NOTHING))
+            .withMessageContaining("posición 450")
+            .withMessageContaining("posición 10");
+        assertThat(bookRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Todo o nada: si falla un bloque en la base de datos se revierten todos")
+    void todoONadaDeberiaRevertirSiFallaUnBloque() {
+        List<Book> libros = libros(800);
+        libros.get(750).setTitle(TITULO_DEMASIADO_LARGO);
+
+        BookParallelWriteReport report = bookService.saveBooksInParallel(libros, BookWriteMode.ALL_OR_NOTHING);
+
+        assertThat(report.committedRows()).isZero();
+        assertThat(report.chunks()).noneMatch(BookChunkResult::committed);
+        assertThat(report.chunks().get(7).error()).isNotBlank();
+        assertThat(bookRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Por bloque: solo se pierden los bloques inválidos o que fallan")
+    void porBloqueDeberiaGuardarLosDemasBloques() {
+        List<Book> libros = libros(600);
+        libros.get(150).setTitle("");
+        libros.get(420).setTitle(TITULO_DEMASIADO_LARGO);
+
+        BookParallelWriteReport report = bookService.saveBooksInParallel(libros, BookWriteMode.PER_CHUNK);
+
+        assertThat(report.chunks()).extracting(BookChunkResult::committed)
+            .containsExactly(true, false, true, true, false, true);
+        assertThat(report.chunks().get(1).rejections()).extracting(BookRejection::index).containsExactly(150);
+        assertThat(report.chunks().get(4).error()).isNotBlank();
+        assertThat(report.committedRows()).isEqualTo(400);
+        assertThat(bookRepository.count()).isEqualTo(400);
+    }
+
+    private static List<Book> libros(int cantidad) {
+        return IntStream.range(0, cantidad)
+            .mapToObj(i -> new Book(null, "Libro " + i, "Autor " + (i % 37)))
+            .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+    }
+}
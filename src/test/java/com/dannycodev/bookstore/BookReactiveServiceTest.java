@@ -0,0 +1,159 @@
+package com.dannycodev.bookstore;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:reactive;DB_CLOSE_DELAY=-1")
+@DisplayName("Pruebas de BookReactiveService")
+class BookReactiveServiceTest {
+
+    @Autowired
+    private BookReactiveService reactiveService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Debe convertir la URL JDBC de H2 a R2DBC")
+    void deberiaDerivarLaUrlR2dbc() {
+        assertThat(BookReactiveConfiguration.toR2dbcUrl("jdbc:h2:mem:libros;DB_CLOSE_DELAY=-1"))
+            .isEqualTo("r2dbc:h2:mem:///libros?options=DB_CLOSE_DELAY=-1");
+        assertThat(BookReactiveConfiguration.toR2dbcUrl("jdbc:postgresql://db:5432/libros"))
+            .isEqualTo("r2dbc:postgresql://db:5432/libros");
+    }
+
+    @Test
+    @DisplayName("Debe guardar normalizado y ser visible desde la variante JPA")
+    void deberiaGuardarYSerVisibleDesdeJpa() {
+        Book guardado = reactiveService.saveBook(new Book(null, "  Ficciones ", "Jorge   Luis Borges")).block();
+
+        assertThat(guardado.getId()).isNotNull();
+        assertThat(guardado.getVersion()).isZero();
+        assertThat(bookService.getBookById(guardado.getId()))
+            .hasValueSatisfying(libro -> assertThat(libro.getTitle()).isEqualTo("Ficciones"));
+        assertThat(bookService.searchBooks("borges", 10)).extracting(Book::getId).containsExactly(guardado.getId());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar un libro inválido sin escribir nada")
+    void deberiaRechazarLibroInvalido() {
+        StepVerifier.create(reactiveService.saveBooks(List.of(
+                new Book(null, "Ficciones", "Jorge Luis Borges"),
+                new Book(null, "", "Nadie"))))
+            .expectError(IllegalArgumentException.class)
+            .verify();
+
+        assertThat(bookRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Las altas reactivas y JPA a la vez no deben repetir ids")
+    void noDeberiaRepetirIdsConAltasConcurrentes() {
+        List<Book> jpa = bookService.saveBooks(libros("JPA", 120));
+        List<Book> reactivos = reactiveService.saveBooks(libros("R2DBC", 120)).collectList().block();
+        List<Book> jpaDespues = bookService.saveBooks(libros("JPA después", 120));
+
+        assertThat(bookRepository.count()).isEqualTo(360);
+        assertThat(reactivos).extracting(Book::getId)
+            .doesNotContainAnyElementsOf(jpa.stream().map(Book::getId).toList())
+            .doesNotContainAnyElementsOf(jpaDespues.stream().map(Book::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Debe listar en orden respetando la demanda del suscriptor")
+    void deberiaListarConContrapresion() {
+        reactiveService.saveBooks(libros("Libro", 50)).blockLast();
+
+        StepVerifier.create(reactiveService.getAllBooks(), 10)
+            .expectNextCount(10)
+            .thenRequest(40)
+            .expectNextCount(40)
+            .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Debe atender miles de lecturas concurrentes con pocos hilos")
+    void deberiaAtenderLecturasConcurrentes() {
+        Book libro = reactiveService.saveBook(new Book(null, "Rayuela", "Julio Cortázar")).block();
+        Set<String> hilos = ConcurrentHashMap.newKeySet();
+
+        Long leidos = Flux.range(0, 5_000)
+            .flatMap(i -> reactiveService.getBookById(libro.getId())
+                .subscribeOn(Schedulers.parallel())
+                .doOnNext(b -> hilos.add(Thread.currentThread().getName())), 1_000)
+            .count()
+            .block(Duration.ofSeconds(30));
+
+        assertThat(leidos).isEqualTo(5_000);
+        assertThat(hilos).hasSizeLessThanOrEqualTo(Schedulers.DEFAULT_POOL_SIZE);
+    }
+
+    @Test
+    @DisplayName("Debe actualizar de forma condicional e invalidar la caché de la variante JPA")
+    void deberiaActualizarCondicionalmente() {
+        Book libro = reactiveService.saveBook(new Book(null, "1984", "George Orwell")).block();
+        bookService.getBookById(libro.getId());
+
+        Book actualizado = reactiveService.updateBook(libro.getId(), new Book(null, "Animal Farm", "George Orwell", 0L)).block();
+
+        assertThat(actualizado.getVersion()).isEqualTo(1);
+        assertThat(bookService.getBookById(libro.getId()))
+            .hasValueSatisfying(b -> assertThat(b.getTitle()).isEqualTo("Animal Farm"));
+        StepVerifier.create(reactiveService.updateBook(libro.getId(), new Book(null, "Otro", "George Orwell", 0L)))
+            .expectError(OptimisticLockingFailureException.class)
+            .verify();
+    }
+
+    @Test
+    @DisplayName("Una actualización sin versión debe devolver la versión nueva")
+    void deberiaDevolverLaVersionTrasActualizarSinVersion() {
+        Book libro = reactiveService.saveBook(new Book(null, "1984", "George Orwell")).block();
+
+        Book actualizado = reactiveService.updateBook(libro.getId(), new Book(null, "Animal Farm", "George Orwell")).block();
+
+        assertThat(actualizado.getVersion()).isEqualTo(1);
+        StepVerifier.create(reactiveService.updateBook(libro.getId(), new Book(null, "Otro", "George Orwell", actualizado.getVersion())))
+            .assertNext(b -> assertThat(b.getVersion()).isEqualTo(2))
+            .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Debe borrar y fallar si el libro no existe")
+    void deberiaBorrar() {
+        Book libro = reactiveService.saveBook(new Book(null, "1984", "George Orwell")).block();
+
+        StepVerifier.create(reactiveService.deleteBookById(libro.getId())).verifyComplete();
+        StepVerifier.create(reactiveService.deleteBookById(libro.getId()))
+            .expectError(BookNotFoundException.class)
+            .verify();
+        assertThat(bookService.getBookById(libro.getId())).isEmpty();
+    }
+
+    private static List<Book> libros(String prefijo, int cantidad) {
+        return IntStream.range(0, cantidad)
+            .mapToObj(i -> new Book(null, prefijo + " " + i, "Autor " + i))
+            .toList();
+    }
+}
@@ -0,0 +1,142 @@
+package com.dannycodev.bookstore;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+// Sin contexto web: así cada prueba decide si corre dentro de una petición
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:replica-primary;DB_CLOSE_DELAY=-1",
+        "bookstore.datasource.replicas=" + BookReadReplicaTest.REPLICA_A + "," + BookReadReplicaTest.REPLICA_B
+})
+@DisplayName("Lecturas en réplicas")
+class BookReadReplicaTest {
+
+    static final String REPLICA_A = "jdbc:h2:mem:replica-a;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_B = "jdbc:h2:mem:replica-b;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final JdbcTemplate replicaA = replica(REPLICA_A);
+    private final JdbcTemplate replicaB = replica(REPLICA_B);
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Las lecturas deben ir por turnos a cada réplica")
+    void deberiaLeerDeLasReplicasPorTurnos() throws Exception {
+        Book libro = bookService.saveBook(new Book(null, "Rayuela", "Julio Cortázar"));
+        replicate(jdbcTemplate);
+        replicaA.update("update book set title = 'Desde A' where id = ?", libro.getId());
+        replicaB.update("update book set title = 'Desde B' where id = ?", libro.getId());
+
+        Set<String> titulos = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            titulos.add(leer(libro.getId()).title());
+        }
+
+        assertThat(titulos).containsExactlyInAnyOrder("Desde A", "Desde B");
+    }
+
+    @Test
+    @DisplayName("Las escrituras deben ir al principal")
+    void deberiaEscribirEnElPrincipal() throws Exception {
+        replicate(jdbcTemplate);
+
+        Book libro = bookService.saveBook(new Book(null, "Ficciones", "Jorge Luis Borges"));
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from book where id = ?", Long.class, libro.getId())).isOne();
+        assertThat(replicaA.queryForObject("select count(*) from book where id = ?", Long.class, libro.getId())).isZero();
+        // Aún no replicado: una lectura fuera de la petición que lo escribió no lo ve
+        assertThat(bookService.getBookViewsPage(libro.getId() - 1, 1).books()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Una petición debe leer lo que ha escrito")
+    void deberiaLeerLoQueEscribeLaMismaPeticion() throws Exception {
+        replicate(jdbcTemplate);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        Book libro = bookService.saveBook(new Book(null, "Pedro Páramo", "Juan Rulfo"));
+
+        assertThat(leer(libro.getId()).title()).isEqualTo("Pedro Páramo");
+    }
+
+    @Test
+    @DisplayName("La caché no debe cargar una fila atrasada de una réplica")
+    void deberiaCargarLaCacheDesdeElPrincipal() throws Exception {
+        Book libro = bookService.saveBook(new Book(null, "El túnel", "Ernesto Sabato"));
+        replicate(jdbcTemplate);
+
+        // Las réplicas se quedan con el título anterior
+        bookService.updateBook(libro.getId(), new Book(null, "Sobre héroes y tumbas", "Ernesto Sabato"));
+
+        assertThat(bookService.getBookById(libro.getId()))
+            .hasValueSatisfying(b -> assertThat(b.getTitle()).isEqualTo("Sobre héroes y tumbas"));
+        assertThat(leer(libro.getId()).title()).isEqualTo("El túnel");
+    }
+
+    private BookView leer(Long id) {
+        List<BookView> books = bookService.getBookViewsPage(id - 1, 1).books();
+        assertThat(books).hasSize(1);
+        return books.get(0);
+    }
+
+    /**
+     * Simula la replicación: copia esquema y datos del principal a las dos réplicas.
+     */
+    static void replicate(JdbcTemplate primary) throws Exception {
+        Path script = Files.createTempFile("replica", ".sql");
+        try {
+            primary.execute("script to '" + script + "'");
+            for (String url : List.of(REPLICA_A, REPLICA_B)) {
+                JdbcTemplate replica = replica(url);
+                replica.execute("drop all objects");
+                replica.execute("runscript from '" + script + "'");
+            }
+        } finally {
+            Files.deleteIfExists(script);
+        }
+    }
+
+    // Mismo usuario que el principal: los pools de las réplicas copian sus credenciales
+    private static JdbcTemplate replica(String url) {
+        return new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+    }
+
+    // Las réplicas necesitan el esquema antes de que se reconstruyan los índices al arrancar
+    @TestConfiguration
+    static class Replication {
+
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+
+        @EventListener(ContextRefreshedEvent.class)
+        void replicateSchema() throws Exception {
+            replicate(jdbcTemplate);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.dannycodev.bookstore;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.*;
+
+@DisplayName("Pruebas unitarias para BookSearchIndex")
+class BookSearchIndexTest {
+
+    private BookSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookSearchIndex();
+        index.index(new Book(1L, "El otoño del patriarca", "Gabriel García Márquez"));
+        index.index(new Book(2L, "Crónica de una muerte anunciada", "Gabriel García Márquez"));
+        index.index(new Book(3L, "Ficciones", "Jorge Luis Borges"));
+        index.index(new Book(4L, "Gabriela, clavo y canela", "Jorge Amado"));
+    }
+
+    @Nested
+    @DisplayName("Normalización")
+    class Normalizacion {
+
+        @Test
+        void deberiaQuitarTildesYMayusculas() {
+            assertThat(BookSearchIndex.tokenize("  Crónica de ÚNA Muerte, anunciada "))
+                .containsExactly("cronica", "de", "una", "muerte", "anunciada");
+        }
+
+        @Test
+        void deberiaIgnorarTextoVacioONulo() {
+            assertThat(BookSearchIndex.tokenize(null)).isEmpty();
+            assertThat(BookSearchIndex.tokenize(" ,; ")).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Búsqueda")
+    class Busqueda {
+
+        @Test
+        void deberiaEncontrarSinTildes() {
+            assertThat(index.search("otono", 10)).containsExactly(1L);
+            assertThat(index.search("MARQUEZ", 10)).containsExactlyInAnyOrder(1L, 2L);
+        }
+
+        @Test
+        void deberiaExigirTodosLosTerminos() {
+            assertThat(index.search("garcia cronica", 10)).containsExactly(2L);
+            assertThat(index.search("borges cronica", 10)).isEmpty();
+        }
+
+        @Test
+        void deberiaTratarUltimoTerminoComoPrefijo() {
+            assertThat(index.search("jorge bor", 10)).containsExactly(3L);
+        }
+
+        @Test
+        void deberiaPriorizarCoincidenciasEnTitulo() {
+            // El título pesa más que el autor: "Gabriela" en el título va antes que "Gabriel" en el autor
+            assertThat(index.search("gabriela", 10)).containsExactly(4L);
+            assertThat(index.search("gabriel", 10)).containsExactly(4L, 1L, 2L);
+        }
+
+        @Test
+        void deberiaPriorizarCoincidenciaExactaSobrePrefijo() {
+            index.index(new Book(5L, "Borges", "Anónimo"));
+            index.index(new Book(6L, "Borgesiana", "Anónimo"));
+
+            assertThat(index.search("borges", 10)).startsWith(5L, 6L);
+        }
+
+        @Test
+        void deberiaRespetarElLimite() {
+            assertThat(index.search("gabriel", 2)).hasSize(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("Mantenimiento incremental")
+    class MantenimientoIncremental {
+
+        @Test
+        void deberiaReemplazarTerminosAlReindexar() {
+            index.index(new Book(3L, "El Aleph", "Jorge Luis Borges"));
+
+            assertThat(index.search("ficciones", 10)).isEmpty();
+            assertThat(index.search("aleph", 10)).containsExactly(3L);
+            assertThat(index.size()).isEqualTo(4);
+        }
+
+        @Test
+        void deberiaOlvidarLibroEliminado() {
+            index.remove(3L);
+
+            assertThat(index.search("borges", 10)).isEmpty();
+            assertThat(index.suggest("bor", 10)).isEmpty();
+            assertThat(index.size()).isEqualTo(3);
+        }
+    }
+
+    @Nested
+    @DisplayName("Autocompletado")
+    class Autocompletado {
+
+        @Test
+        void deberiaSugerirTerminosMasFrecuentesPrimero() {
+            assertThat(index.suggest("Gab", 10)).containsExactly("gabriel", "gabriela");
+        }
+
+        @Test
+        void deberiaRespetarElLimite() {
+            assertThat(index.suggest("j", 1)).containsExactly("jorge");
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.dannycodev.bookstore;
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,7 +14,9 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("Pruebas unitarias para BookService usando AssertJ")
@@ -22,6 +25,24 @@ class BookServiceAssertJTest {
     @Mock
     private BookRepository bookRepository;
 
+    @Spy
+    private BookCache bookCache = new BookCache(100, Duration.ofMinutes(10));
+
+    @Spy
+    private BookSearchIndex bookSearchIndex = new BookSearchIndex();
+
+    @Spy
+    private BookAuthorIndex bookAuthorIndex = new BookAuthorIndex(true);
+
+    @Spy
+    private BookCatalogSnapshot bookCatalogSnapshot = new BookCatalogSnapshot(false, 1000);
+
+    @Mock
+    private BookChangeLog bookChangeLog;
+
+    @Spy
+    private TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
+
     @InjectMocks
     private BookService bookService;
 
@@ -184,14 +205,15 @@ class BookServiceAssertJTest {
 
         @Test
         void deberiaEliminarLibroExistente() {
-            when(bookRepository.existsById(1L)).thenReturn(true);
+            when(bookRepository.deleteDirectlyById(1L)).thenReturn(1);
             bookService.deleteBookById(1L);
-            verify(bookRepository).deleteById(1L);
+            verify(bookRepository).deleteDirectlyById(1L);
+            verify(bookRepository, never()).existsById(any());
         }
 
         @Test
         void deberiaLanzarExcepcionSiLibroNoExiste() {
-            when(bookRepository.existsById(99L)).thenReturn(false);
+            when(bookRepository.deleteDirectlyById(99L)).thenReturn(0);
 
             Throwable ex = catchThrowable(() -> bookService.deleteBookById(99L));
 
@@ -200,6 +222,7 @@ class BookServiceAssertJTest {
                 .hasMessage("El libro no existe");
 
             verify(bookRepository, never()).deleteById(any());
+            verify(bookCache, never()).invalidate(any());
         }
     }
 
@@ -214,16 +237,18 @@ class BookServiceAssertJTest {
                     .author("George Orwell")
                     .build();
 
-            when(bookRepository.findById(1L)).thenReturn(Optional.of(libroValido));
-            when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(bookRepository.updateTitleAndAuthorById(1L, "Animal Farm", "George Orwell")).thenReturn(Optional.of(1L));
 
             Book actualizado = bookService.updateBook(1L, nuevosDatos);
 
             assertThat(actualizado.getTitle()).isEqualTo("Animal Farm");
             assertThat(actualizado.getAuthor()).isEqualTo("George Orwell");
 
-            verify(bookRepository).findById(1L);
-            verify(bookRepository).save(libroValido);
+            assertThat(actualizado.getId()).isEqualTo(1L);
+            assertThat(actualizado.getVersion()).isEqualTo(1L);
+            verify(bookRepository).updateTitleAndAuthorById(1L, "Animal Farm", "George Orwell");
+            verify(bookRepository, never()).findById(any());
+            verify(bookRepository, never()).save(any());
         }
 
         @Test
@@ -233,7 +258,7 @@ class BookServiceAssertJTest {
                     .author("Nuevo Autor")
                     .build();
 
-            when(bookRepository.findById(99L)).thenReturn(Optional.empty());
+            when(bookRepository.updateTitleAndAuthorById(99L, "Nuevo Título", "Nuevo Autor")).thenReturn(Optional.empty());
 
             Throwable ex = catchThrowable(() -> bookService.updateBook(99L, nuevosDatos));
 
@@ -251,8 +276,6 @@ class BookServiceAssertJTest {
                     .author("Autor válido")
                     .build();
 
-            when(bookRepository.findById(1L)).thenReturn(Optional.of(libroValido));
-
             Throwable ex = catchThrowable(() -> bookService.updateBook(1L, nuevosDatos));
 
             assertThat(ex)
@@ -260,6 +283,7 @@ class BookServiceAssertJTest {
                 .hasMessage("El libro debe tener un título válido");
 
             verify(bookRepository, never()).save(any());
+            verify(bookRepository, never()).updateTitleAndAuthorById(any(), any(), any());
         }
     }
 }
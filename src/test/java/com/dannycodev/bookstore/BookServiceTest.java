@@ -2,19 +2,32 @@ package com.dannycodev.bookstore;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("Pruebas unitarias para BookService")
@@ -23,9 +36,36 @@ class BookServiceTest {
     @Mock
     private BookRepository bookRepository;
 
+    @Spy
+    private BookCache bookCache = new BookCache(100, Duration.ofMinutes(10));
+
+    @Spy
+    private BookSearchIndex bookSearchIndex = new BookSearchIndex();
+
+    @Spy
+    private BookAuthorIndex bookAuthorIndex = new BookAuthorIndex(true);
+
+    @Spy
+    private BookCatalogSnapshot bookCatalogSnapshot = new BookCatalogSnapshot(false, 1000);
+
+    @Mock
+    private BookChangeLog bookChangeLog;
+
+    @Spy
+    private TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
+
+    @Mock
+    private BookBulkIngester bookBulkIngester;
+
+    @Mock
+    private BookBatchLoader bookBatchLoader;
+
     @InjectMocks
     private BookService bookService;
 
+    @Captor
+    private ArgumentCaptor<List<Book>> librosCaptor;
+
     private Book libroValido;
 
     @BeforeEach
@@ -51,6 +91,7 @@ class BookServiceTest {
             assertNotNull(result);
             assertEquals("1984", result.getTitle());
             verify(bookRepository).save(libroValido);
+            verify(bookChangeLog).recordSaved(BookChangeType.CREATED, List.of(libroValido));
         }
 
         @Test
@@ -121,6 +162,102 @@ class BookServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Carga masiva")
+    class CargaMasiva {
+
+        @Test
+        @DisplayName("Debe recortar los campos y delegar en el cargador por lotes")
+        void deberiaRecortarYDelegarEnCargador() {
+            List<Book> libros = List.of(
+                    new Book(null, " Libro 1 ", " Autor 1 "),
+                    new Book(null, "Libro 2", "Autor 2")
+            );
+            BulkIngestReport reporte = new BulkIngestReport(2, 1, 1_000_000L);
+            when(bookBulkIngester.ingestSkippingDuplicates(eq(libros), any())).thenReturn(reporte);
+
+            BulkIngestReport resultado = bookService.ingestBooks(libros);
+
+            assertSame(reporte, resultado);
+            assertEquals("Libro 1", libros.get(0).getTitle());
+            assertEquals("Autor 1", libros.get(0).getAuthor());
+            verify(bookRepository, never()).saveAll(any());
+        }
+
+        @Test
+        @DisplayName("No debe cargar nada si algún libro es inválido")
+        void deberiaLanzarExcepcionSiAlgunLibroEsInvalido() {
+            Book libroValido = new Book(null, " Libro 1 ", "Autor 1");
+            List<Book> libros = List.of(libroValido, new Book(null, " ", "Autor 2"));
+
+            IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> {
+                bookService.ingestBooks(libros);
+            });
+
+            assertEquals("El libro debe tener un título válido", ex.getMessage());
+            assertEquals(" Libro 1 ", libroValido.getTitle());
+            verify(bookBulkIngester, never()).ingestSkippingDuplicates(any(), any());
+        }
+
+        @Test
+        @DisplayName("El reporte debe calcular filas por segundo")
+        void reporteDeberiaCalcularFilasPorSegundo() {
+            BulkIngestReport reporte = new BulkIngestReport(500, 1, 250_000_000L);
+
+            assertEquals(2000.0, reporte.rowsPerSecond(), 0.001);
+        }
+    }
+
+    @Nested
+    @DisplayName("Importar libros")
+    class ImportarLibros {
+
+        @Test
+        @DisplayName("Debe cargar los libros válidos y reportar los inválidos")
+        void deberiaCargarValidosYReportarInvalidos() {
+            Book valido1 = new Book(null, "  Cien   años de soledad ", "García Márquez");
+            Book invalido = new Book(null, " ", null);
+            Book valido2 = new Book(null, "Ficciones", "Borges");
+            when(bookBulkIngester.ingestSkippingDuplicates(any(), any())).thenAnswer(invocation -> {
+                List<Book> cargados = invocation.getArgument(0);
+                return new BulkIngestReport(cargados.size(), 1, 1_000_000L);
+            });
+
+            BookImportResult resultado = bookService.importBooks(List.of(valido1, invalido, valido2));
+
+            assertEquals(2, resultado.accepted());
+            assertEquals(1, resultado.rejected());
+            BookRejection rechazo = resultado.rejections().get(0);
+            assertEquals(1, rechazo.index());
+            assertEquals(List.of("El libro debe tener un título válido", "El libro debe tener un autor válido"),
+                    rechazo.messages());
+            assertEquals("Cien años de soledad", valido1.getTitle());
+
+            verify(bookBulkIngester).ingestSkippingDuplicates(librosCaptor.capture(), any());
+            assertEquals(List.of(valido1, valido2), librosCaptor.getValue());
+        }
+
+        @Test
+        @DisplayName("Debe reportar los duplicados en su posición del lote original")
+        void deberiaReportarDuplicadosEnSuPosicion() {
+            Book invalido = new Book(null, " ", "Borges");
+            Book existente = new Book(null, "Ficciones", "Borges");
+            Book nuevo = new Book(null, "El Aleph", "Borges");
+            when(bookBulkIngester.ingestSkippingDuplicates(any(), any())).thenAnswer(invocation -> {
+                IntConsumer onDuplicate = invocation.getArgument(1);
+                onDuplicate.accept(0);
+                return new BulkIngestReport(1, 1, 1_000_000L);
+            });
+
+            BookImportResult resultado = bookService.importBooks(List.of(invalido, existente, nuevo));
+
+            assertEquals(1, resultado.accepted());
+            assertEquals(List.of(0, 1), resultado.rejections().stream().map(BookRejection::index).toList());
+            assertEquals(List.of("Ya existe un libro con el mismo título y autor"),
+                    resultado.rejections().get(1).messages());
+        }
+    }
+
     @Nested
     @DisplayName("Obtener libros")
     class ObtenerLibros {
@@ -154,20 +291,368 @@ class BookServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Recorrer catálogo")
+    class RecorrerCatalogo {
+
+        @Test
+        @DisplayName("Debe devolver el cursor de la siguiente página si la página está llena")
+        void deberiaRetornarCursorSiPaginaLlena() {
+            Book otro = new Book(5L, "Animal Farm", "George Orwell");
+            when(bookRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2)))
+                    .thenReturn(List.of(libroValido, otro));
+
+            BookPage<Book> pagina = bookService.getBooksPage(null, 2);
+
+            assertEquals(2, pagina.books().size());
+            assertEquals(5L, pagina.nextCursor());
+        }
+
+        @Test
+        @DisplayName("No debe devolver cursor en la última página")
+        void deberiaRetornarCursorNuloEnUltimaPagina() {
+            when(bookRepository.findByIdGreaterThanOrderByIdAsc(5L, Limit.of(2)))
+                    .thenReturn(List.of(libroValido));
+
+            BookPage<Book> pagina = bookService.getBooksPage(5L, 2);
+
+            assertEquals(1, pagina.books().size());
+            assertNull(pagina.nextCursor());
+        }
+
+        @ParameterizedTest(name = "Tamaño inválido: {0}")
+        @ValueSource(ints = {0, -1, BookService.MAX_PAGE_SIZE + 1})
+        @DisplayName("Debe lanzar excepción si el tamaño de página es inválido")
+        void deberiaLanzarExcepcionSiTamanoInvalido(int tamano) {
+            assertThrows(IllegalArgumentException.class, () -> bookService.getBooksPage(null, tamano));
+            verifyNoInteractions(bookRepository);
+        }
+
+        @Test
+        @DisplayName("Debe recorrer todos los libros en streaming")
+        void deberiaRecorrerTodosLosLibros() {
+            when(bookRepository.streamAll()).thenReturn(Stream.of(libroValido, new Book(2L, "Libro 2", "Autor 2")));
+            List<String> titulos = new ArrayList<>();
+
+            bookService.forEachBook(book -> titulos.add(book.getTitle()));
+
+            assertEquals(List.of("1984", "Libro 2"), titulos);
+            verify(bookRepository, never()).findAll();
+        }
+    }
+
+    @Nested
+    @DisplayName("Vistas de solo lectura")
+    class VistasDeSoloLectura {
+
+        private final BookView vista = new BookView(1L, "1984", "George Orwell");
+
+        @Test
+        @DisplayName("Debe leer la vista por id sin cargar la entidad")
+        void deberiaLeerVistaPorId() {
+            when(bookRepository.findViewById(1L)).thenReturn(Optional.of(vista));
+
+            assertEquals(Optional.of(vista), bookService.getBookViewById(1L));
+            verify(bookRepository, never()).findById(any());
+        }
+
+        @Test
+        @DisplayName("Debe servir la vista desde la caché si el libro ya está cargado")
+        void deberiaServirVistaDesdeCache() {
+            when(bookRepository.findById(1L)).thenReturn(Optional.of(libroValido));
+            bookService.getBookById(1L);
+
+            assertEquals(Optional.of(vista), bookService.getBookViewById(1L));
+            verify(bookRepository, never()).findViewById(any());
+        }
+
+        @Test
+        @DisplayName("Debe paginar vistas con cursor")
+        void deberiaPaginarVistas() {
+            BookView otra = new BookView(5L, "Animal Farm", "George Orwell");
+            when(bookRepository.findViewsAfter(0L, Limit.of(2))).thenReturn(List.of(vista, otra));
+
+            BookPage<BookView> pagina = bookService.getBookViewsPage(null, 2);
+
+            assertEquals(List.of(vista, otra), pagina.books());
+            assertEquals(5L, pagina.nextCursor());
+        }
+
+        @Test
+        @DisplayName("Debe recorrer el catálogo como vistas")
+        void deberiaRecorrerVistas() {
+            when(bookRepository.streamAllViews()).thenReturn(Stream.of(vista));
+            List<BookView> vistas = new ArrayList<>();
+
+            bookService.forEachBookView(vistas::add);
+
+            assertEquals(List.of(vista), vistas);
+            verify(bookRepository, never()).streamAll();
+        }
+    }
+
+    @Nested
+    @DisplayName("Caché de libros")
+    class CacheDeLibros {
+
+        @Test
+        @DisplayName("La segunda lectura del mismo id no debe consultar el repositorio")
+        void deberiaServirSegundaLecturaDesdeCache() {
+            when(bookRepository.findById(1L)).thenReturn(Optional.of(libroValido));
+
+            bookService.getBookById(1L);
+            Optional<Book> result = bookService.getBookById(1L);
+
+            assertEquals("1984", result.get().getTitle());
+            verify(bookRepository, times(1)).findById(1L);
+            assertEquals(1, bookCache.hitCount());
+            assertEquals(1, bookCache.missCount());
+        }
+
+        @Test
+        @DisplayName("Modificar el libro devuelto no debe alterar la caché")
+        void noDeberiaCompartirInstanciaCacheada() {
+            when(bookRepository.findById(1L)).thenReturn(Optional.of(libroValido));
+
+            bookService.getBookById(1L).get().setTitle("Modificado");
+
+            assertEquals("1984", bookService.getBookById(1L).get().getTitle());
+        }
+
+        @Test
+        @DisplayName("Actualizar un libro debe invalidar su entrada en caché")
+        void deberiaInvalidarAlActualizar() {
+            when(bookRepository.findById(1L)).thenReturn(Optional.of(libroValido))
+                    .thenReturn(Optional.of(new Book(1L, "Animal Farm", "George Orwell")));
+            when(bookRepository.updateTitleAndAuthorById(1L, "Animal Farm", "George Orwell")).thenReturn(Optional.of(1L));
+
+            bookService.getBookById(1L);
+            bookService.updateBook(1L, Book.builder().title("Animal Farm").author("George Orwell").build());
+            Optional<Book> result = bookService.getBookById(1L);
+
+            assertEquals("Animal Farm", result.get().getTitle());
+            verify(bookCache).invalidate(1L);
+        }
+
+        @Test
+        @DisplayName("Eliminar un libro debe invalidar su entrada en caché")
+        void deberiaInvalidarAlEliminar() {
+            when(bookRepository.findById(1L)).thenReturn(Optional.of(libroValido)).thenReturn(Optional.empty());
+            when(bookRepository.deleteDirectlyById(1L)).thenReturn(1);
+
+            bookService.getBookById(1L);
+            bookService.deleteBookById(1L);
+
+            assertFalse(bookService.getBookById(1L).isPresent());
+        }
+
+        @Test
+        @DisplayName("Dentro de una transacción no debe leer ni llenar la caché")
+        void noDeberiaUsarCacheDentroDeUnaTransaccion() {
+            when(bookRepository.findById(1L)).thenReturn(Optional.of(libroValido));
+
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+            try {
+                bookService.getBookById(1L);
+            } finally {
+                TransactionSynchronizationManager.setActualTransactionActive(false);
+            }
+
+            assertFalse(bookCache.getIfPresent(1L).isPresent());
+            verify(bookCache, never()).get(any(), any());
+        }
+
+        @Test
+        @DisplayName("Dentro de una transacción debe leer del repositorio aunque haya instantánea")
+        void deberiaIgnorarLaInstantaneaDentroDeUnaTransaccion() {
+            // Lenient: dentro de la transacción ni siquiera se pregunta
+            lenient().doReturn(true).when(bookCatalogSnapshot).isReady();
+            when(bookRepository.findById(1L)).thenReturn(Optional.of(libroValido));
+            when(bookRepository.findAllById(List.of(1L))).thenReturn(List.of(libroValido));
+
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+            try {
+                assertEquals("1984", bookService.getBookById(1L).get().getTitle());
+                assertEquals(List.of(libroValido), bookService.getBooksByIds(List.of(1L)));
+            } finally {
+                TransactionSynchronizationManager.setActualTransactionActive(false);
+            }
+
+            verify(bookCatalogSnapshot, never()).find(anyLong());
+        }
+
+        @Test
+        @DisplayName("No debe cachear ids inexistentes")
+        void noDeberiaCachearIdsInexistentes() {
+            when(bookRepository.findById(2L)).thenReturn(Optional.empty());
+
+            bookService.getBookById(2L);
+            bookService.getBookById(2L);
+
+            verify(bookRepository, times(2)).findById(2L);
+        }
+    }
+
+    @Nested
+    @DisplayName("Leer varios libros por id")
+    class LeerVariosLibros {
+
+        @Test
+        @DisplayName("Debe pedir en lote solo los que no están en caché y respetar el orden")
+        void deberiaPedirEnLoteLosQueFaltan() {
+            Book otro = new Book(2L, "Animal Farm", "George Orwell");
+            when(bookRepository.findById(1L)).thenReturn(Optional.of(libroValido));
+            when(bookBatchLoader.load(List.of(2L, 3L))).thenReturn(Map.of(2L, otro));
+            bookService.getBookById(1L);
+
+            List<Book> libros = bookService.getBooksByIds(List.of(2L, 1L, 3L, 2L));
+
+            assertEquals(List.of(2L, 1L), libros.stream().map(Book::getId).toList());
+            verify(bookRepository, never()).findAllById(any());
+        }
+
+        @Test
+        @DisplayName("Debe guardar en caché lo que trae el lote")
+        void deberiaCachearLoQueTraeElLote() {
+            when(bookBatchLoader.load(List.of(1L))).thenReturn(Map.of(1L, libroValido));
+
+            bookService.getBooksByIds(List.of(1L));
+            List<Book> libros = bookService.getBooksByIds(List.of(1L));
+
+            assertEquals("1984", libros.get(0).getTitle());
+            verify(bookBatchLoader, times(1)).load(any());
+        }
+
+        @Test
+        @DisplayName("No debe consultar si todos están en caché")
+        void noDeberiaConsultarSiTodosEstanEnCache() {
+            when(bookRepository.findById(1L)).thenReturn(Optional.of(libroValido));
+            bookService.getBookById(1L);
+
+            assertEquals(1, bookService.getBooksByIds(List.of(1L)).size());
+            verifyNoInteractions(bookBatchLoader);
+        }
+    }
+
+    @Nested
+    @DisplayName("Buscar libros")
+    class BuscarLibros {
+
+        @Test
+        @DisplayName("Debe encontrar un libro guardado sin importar tildes ni mayúsculas")
+        void deberiaEncontrarLibroGuardadoSinTildes() {
+            Book libro = new Book(7L, "Cien años de soledad", "Gabriel García Márquez");
+            when(bookRepository.save(libro)).thenReturn(libro);
+            when(bookRepository.findAllById(List.of(7L))).thenReturn(List.of(libro));
+
+            bookService.saveBook(libro);
+            List<Book> resultado = bookService.searchBooks("GARCIA anos", 10);
+
+            assertEquals(List.of(libro), resultado);
+        }
+
+        @Test
+        @DisplayName("Debe dejar de encontrar un libro eliminado")
+        void noDeberiaEncontrarLibroEliminado() {
+            bookSearchIndex.index(libroValido);
+            when(bookRepository.deleteDirectlyById(1L)).thenReturn(1);
+
+            bookService.deleteBookById(1L);
+
+            assertTrue(bookService.searchBooks("orwell", 10).isEmpty());
+            verify(bookRepository, never()).findAllById(any());
+        }
+
+        @Test
+        @DisplayName("Debe indexar los nuevos datos al actualizar")
+        void deberiaReindexarAlActualizar() {
+            bookSearchIndex.index(libroValido);
+            when(bookRepository.updateTitleAndAuthorById(1L, "Animal Farm", "George Orwell")).thenReturn(Optional.of(1L));
+
+            bookService.updateBook(1L, Book.builder().title("Animal Farm").author("George Orwell").build());
+
+            assertEquals(List.of(1L), bookSearchIndex.search("animal", 10));
+            assertTrue(bookSearchIndex.search("1984", 10).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Debe reconstruir el índice a partir del catálogo")
+        void deberiaReconstruirIndiceDesdeCatalogo() {
+            bookSearchIndex.index(new Book(99L, "Huérfano", "Nadie"));
+            when(bookRepository.streamAll()).thenReturn(Stream.of(libroValido));
+
+            bookService.rebuildSearchIndex();
+
+            assertEquals(1, bookSearchIndex.size());
+            assertEquals(List.of("george"), bookService.suggestTerms("geo", 5));
+        }
+    }
+
+    @Nested
+    @DisplayName("Libros por autor")
+    class LibrosPorAutor {
+
+        @Test
+        @DisplayName("Debe consultar la base de datos mientras el índice no está cargado")
+        void deberiaContarEnBaseDeDatosSinIndice() {
+            when(bookRepository.countByAuthor("George Orwell")).thenReturn(2L);
+            when(bookRepository.countBooksByAuthor(Limit.of(5)))
+                    .thenReturn(List.of(new AuthorBookCount("George Orwell", 2)));
+
+            assertEquals(2L, bookService.countBooksByAuthor("  George   Orwell "));
+            assertEquals(List.of(new AuthorBookCount("George Orwell", 2)), bookService.getTopAuthors(5));
+        }
+
+        @Test
+        @DisplayName("Debe contar desde el índice una vez cargado y seguir las escrituras")
+        void deberiaContarDesdeIndice() {
+            when(bookRepository.streamAll()).thenReturn(Stream.of(libroValido, new Book(2L, "Animal Farm", "George Orwell")));
+            bookService.rebuildSearchIndex();
+            when(bookRepository.updateTitleAndAuthorById(2L, "Ficciones", "Jorge Luis Borges")).thenReturn(Optional.of(1L));
+
+            bookService.updateBook(2L, new Book(null, "Ficciones", "Jorge Luis Borges"));
+
+            assertEquals(1L, bookService.countBooksByAuthor("George Orwell"));
+            assertEquals(List.of(new AuthorBookCount("George Orwell", 1), new AuthorBookCount("Jorge Luis Borges", 1)),
+                    bookService.getTopAuthors(5));
+            verify(bookRepository, never()).countByAuthor(any());
+            verify(bookRepository, never()).countBooksByAuthor(any());
+        }
+
+        @Test
+        @DisplayName("Debe buscar los libros del autor por la columna indexada")
+        void deberiaBuscarLibrosDelAutor() {
+            when(bookRepository.findByAuthorOrderByIdAsc("George Orwell")).thenReturn(List.of(libroValido));
+
+            assertEquals(List.of(libroValido), bookService.getBooksByAuthor("George Orwell"));
+        }
+
+        @ParameterizedTest
+        @NullAndEmptySource
+        @ValueSource(strings = {"   "})
+        @DisplayName("Debe rechazar un autor vacío")
+        void deberiaRechazarAutorVacio(String autor) {
+            assertThrows(IllegalArgumentException.class, () -> bookService.countBooksByAuthor(autor));
+            verifyNoInteractions(bookRepository);
+        }
+    }
+
     @Nested
     @DisplayName("Eliminar libro")
     class EliminarLibro {
 
         @Test
         void deberiaEliminarLibroExistente() {
-            when(bookRepository.existsById(1L)).thenReturn(true);
+            when(bookRepository.deleteDirectlyById(1L)).thenReturn(1);
             bookService.deleteBookById(1L);
-            verify(bookRepository).deleteById(1L);
+            verify(bookRepository).deleteDirectlyById(1L);
+            verify(bookRepository, never()).existsById(any());
+            verify(bookChangeLog).recordDeleted(1L);
         }
 
         @Test
         void deberiaLanzarExcepcionSiLibroNoExiste() {
-            when(bookRepository.existsById(99L)).thenReturn(false);
+            when(bookRepository.deleteDirectlyById(99L)).thenReturn(0);
 
             IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> {
                 bookService.deleteBookById(99L);
@@ -175,6 +660,8 @@ class BookServiceTest {
 
             assertEquals("El libro no existe", ex.getMessage());
             verify(bookRepository, never()).deleteById(any());
+            verify(bookCache, never()).invalidate(any());
+            verifyNoInteractions(bookChangeLog);
         }
     }
 
@@ -182,6 +669,46 @@ class BookServiceTest {
     @DisplayName("Actualizar libro")
     class ActualizarLibro {
 
+        @Test
+        @DisplayName("Debe aplicar la actualización condicional si la versión coincide")
+        void deberiaActualizarSiLaVersionCoincide() {
+            when(bookRepository.updateTitleAndAuthorByIdAndVersion(1L, 3L, "Animal Farm", "George Orwell")).thenReturn(1);
+
+            Book actualizado = bookService.updateBook(1L, new Book(null, "Animal Farm", "George Orwell", 3L));
+
+            assertEquals(4L, actualizado.getVersion());
+            verify(bookRepository, never()).updateTitleAndAuthorById(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Debe lanzar conflicto si otro cambió el libro antes")
+        void deberiaLanzarConflictoSiLaVersionNoCoincide() {
+            when(bookRepository.updateTitleAndAuthorByIdAndVersion(1L, 3L, "Animal Farm", "George Orwell")).thenReturn(0);
+            when(bookRepository.existsById(1L)).thenReturn(true);
+
+            assertThrows(OptimisticLockingFailureException.class,
+                    () -> bookService.updateBook(1L, 3L, new Book(null, "Animal Farm", "George Orwell")));
+            verify(bookCache, never()).invalidate(any());
+        }
+
+        @Test
+        @DisplayName("Debe releer y reintentar la modificación tras un conflicto")
+        void deberiaReintentarTrasConflicto() {
+            when(bookRepository.findById(1L))
+                    .thenReturn(Optional.of(new Book(1L, "1984", "George Orwell", 3L)))
+                    .thenReturn(Optional.of(new Book(1L, "1984", "G. Orwell", 4L)));
+            when(bookRepository.updateTitleAndAuthorByIdAndVersion(1L, 3L, "1984 (2ª ed.)", "George Orwell")).thenReturn(0);
+            when(bookRepository.existsById(1L)).thenReturn(true);
+            when(bookRepository.updateTitleAndAuthorByIdAndVersion(1L, 4L, "1984 (2ª ed.)", "G. Orwell")).thenReturn(1);
+
+            Book actualizado = bookService.modifyBook(1L, libro -> libro.toBuilder().title("1984 (2ª ed.)").build());
+
+            assertEquals("G. Orwell", actualizado.getAuthor());
+            assertEquals(5L, actualizado.getVersion());
+            verify(transactionOperations, times(2)).execute(any());
+            verify(bookChangeLog).recordSaved(BookChangeType.UPDATED, List.of(actualizado));
+        }
+
         @Test
         void deberiaActualizarCamposCorrectamente() {
             Book nuevosDatos = Book.builder()
@@ -189,16 +716,18 @@ class BookServiceTest {
                     .author("George Orwell")
                     .build();
 
-            when(bookRepository.findById(1L)).thenReturn(Optional.of(libroValido));
-            when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(bookRepository.updateTitleAndAuthorById(1L, "Animal Farm", "George Orwell")).thenReturn(Optional.of(1L));
 
             Book actualizado = bookService.updateBook(1L, nuevosDatos);
 
             assertEquals("Animal Farm", actualizado.getTitle());
             assertEquals("George Orwell", actualizado.getAuthor());
 
-            verify(bookRepository).findById(1L);
-            verify(bookRepository).save(libroValido);
+            assertEquals(1L, actualizado.getId());
+            assertEquals(1L, actualizado.getVersion());
+            verify(bookRepository).updateTitleAndAuthorById(1L, "Animal Farm", "George Orwell");
+            verify(bookRepository, never()).findById(any());
+            verify(bookRepository, never()).save(any());
         }
 
         @Test
@@ -208,7 +737,7 @@ class BookServiceTest {
                     .author("Nuevo Autor")
                     .build();
 
-            when(bookRepository.findById(99L)).thenReturn(Optional.empty());
+            when(bookRepository.updateTitleAndAuthorById(99L, "Nuevo Título", "Nuevo Autor")).thenReturn(Optional.empty());
 
             IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> {
                 bookService.updateBook(99L, nuevosDatos);
@@ -225,14 +754,13 @@ class BookServiceTest {
                     .author("Autor válido")
                     .build();
 
-            when(bookRepository.findById(1L)).thenReturn(Optional.of(libroValido));
-
             IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> {
                 bookService.updateBook(1L, nuevosDatos);
             });
 
             assertEquals("El libro debe tener un título válido", ex.getMessage());
             verify(bookRepository, never()).save(any());
+            verify(bookRepository, never()).updateTitleAndAuthorById(any(), any(), any());
         }
     }
 }
@@ -0,0 +1,107 @@
+package com.dannycodev.bookstore;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:snapshot;DB_CLOSE_DELAY=-1",
+        "bookstore.snapshot.enabled=true",
+        "bookstore.snapshot.max-pending=50"
+})
+@DisplayName("Lecturas desde la instantánea del catálogo")
+class BookSnapshotServingTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookReactiveService reactiveService;
+
+    @Autowired
+    private BookCatalogSnapshot bookCatalogSnapshot;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("Las lecturas no deben consultar la base de datos")
+    void deberiaLeerSinConsultarLaBaseDeDatos() {
+        List<Book> guardados = bookService.saveBooks(libros("Primero", 10));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long sentencias = statistics.getPrepareStatementCount();
+
+        assertThat(bookService.getBookById(guardados.get(3).getId()))
+            .hasValueSatisfying(libro -> assertThat(libro.getTitle()).isEqualTo("Primero 3"));
+        assertThat(bookService.getBookViewsPage(guardados.get(0).getId() - 1, 10).books()).hasSize(10);
+        assertThat(bookService.getAllBookViews()).hasSizeGreaterThanOrEqualTo(10);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(sentencias);
+    }
+
+    @Test
+    @DisplayName("Debe reflejar altas, cambios y borrados, también después de compactar")
+    void deberiaSeguirLasEscrituras() {
+        List<Book> guardados = bookService.saveBooks(libros("Segundo", 120));
+        Book primero = guardados.get(0);
+
+        Book actualizado = bookService.updateBook(primero.getId(), new Book(null, "Rayuela", "Julio Cortázar"));
+        bookService.deleteBookById(guardados.get(1).getId());
+
+        assertThat(bookService.getBookById(primero.getId())).hasValueSatisfying(libro -> {
+            assertThat(libro.getTitle()).isEqualTo(actualizado.getTitle());
+            assertThat(libro.getVersion()).isEqualTo(1L);
+        });
+        assertThat(bookService.getBookById(guardados.get(1).getId())).isEmpty();
+        await(() -> bookCatalogSnapshot.pendingChanges() < 50);
+        assertThat(bookService.getBooksPage(primero.getId() - 1, 3).books())
+            .extracting(Book::getId)
+            .containsExactly(primero.getId(), guardados.get(2).getId(), guardados.get(3).getId());
+    }
+
+    @Test
+    @DisplayName("Debe reflejar las escrituras de la variante reactiva")
+    void deberiaSeguirLasEscriturasReactivas() {
+        List<Book> guardados = reactiveService.saveBooks(libros("Tercero", 3)).collectList().block();
+        Book primero = guardados.get(0);
+
+        assertThat(bookService.getBookById(primero.getId()))
+            .hasValueSatisfying(libro -> assertThat(libro.getTitle()).isEqualTo("Tercero 0"));
+
+        reactiveService.updateBook(primero.getId(), new Book(null, "Bestiario", "Julio Cortázar", 0L)).block();
+        reactiveService.deleteBookById(guardados.get(1).getId()).block();
+
+        assertThat(bookService.getBookById(primero.getId())).hasValueSatisfying(libro -> {
+            assertThat(libro.getTitle()).isEqualTo("Bestiario");
+            assertThat(libro.getVersion()).isEqualTo(1L);
+        });
+        assertThat(bookService.getBooksByIds(guardados.stream().map(Book::getId).toList()))
+            .extracting(Book::getId)
+            .containsExactly(primero.getId(), guardados.get(2).getId());
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("tiempo de espera agotado").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+    private static List<Book> libros(String prefijo, int cantidad) {
+        return IntStream.range(0, cantidad)
+            .mapToObj(i -> new Book(null, prefijo + " " + i, "Autor " + i))
+            .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+    }
+}
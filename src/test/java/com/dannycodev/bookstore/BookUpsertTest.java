@@ -0,0 +1,118 @@
+package com.dannycodev.bookstore;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:upsert;DB_CLOSE_DELAY=-1",
+        "bookstore.ingest.chunk-size=100"
+})
+@DisplayName("Altas sin duplicados por título y autor")
+class BookUpsertTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Repetir la misma carga no debe duplicar libros")
+    void repetirLaCargaNoDeberiaDuplicar() {
+        BookUpsertResult primera = bookService.upsertBooks(libros(250));
+        BookUpsertResult segunda = bookService.upsertBooks(libros(250));
+
+        assertThat(primera.inserted()).isEqualTo(250);
+        assertThat(segunda.inserted()).isZero();
+        assertThat(segunda.existing()).isEqualTo(250);
+        assertThat(segunda.books()).extracting(Book::getId)
+            .containsExactlyElementsOf(primera.books().stream().map(Book::getId).toList());
+        assertThat(bookRepository.count()).isEqualTo(250);
+    }
+
+    @Test
+    @DisplayName("Debe comparar por los valores normalizados e insertar una vez los repetidos de la entrada")
+    void deberiaCompararNormalizado() {
+        bookService.saveBook(new Book(null, "1984", "George Orwell"));
+
+        BookUpsertResult result = bookService.upsertBooks(new ArrayList<>(List.of(
+                new Book(null, "  1984 ", "George   Orwell"),
+                new Book(null, "Rayuela", "Julio Cortázar"),
+                new Book(null, "Rayuela ", " Julio Cortázar"))));
+
+        assertThat(result.inserted()).isEqualTo(1);
+        assertThat(result.books().get(1).getId()).isEqualTo(result.books().get(2).getId());
+        assertThat(bookRepository.count()).isEqualTo(2);
+        assertThat(bookService.searchBooks("rayuela", 10)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Debe buscar los existentes con una consulta por bloque")
+    void deberiaConsultarUnaVezPorBloque() {
+        bookService.upsertBooks(libros(150));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long consultas = statistics.getQueryExecutionCount();
+
+        BookUpsertResult result = bookService.upsertBooks(libros(300));
+
+        assertThat(result.inserted()).isEqualTo(150);
+        assertThat(statistics.getQueryExecutionCount() - consultas).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Las cargas concurrentes de los mismos libros no deben duplicar ni fallar")
+    void cargasConcurrentesNoDeberianDuplicar() throws Exception {
+        List<Future<BookUpsertResult>> resultados = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            for (int i = 0; i < 4; i++) {
+                resultados.add(executor.submit(() -> bookService.upsertBooks(libros(200))));
+            }
+        }
+
+        int insertados = 0;
+        for (Future<BookUpsertResult> resultado : resultados) {
+            insertados += resultado.get().inserted();
+        }
+        assertThat(insertados).isEqualTo(200);
+        assertThat(bookRepository.count()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Guardar un libro repetido debe violar la clave natural")
+    void guardarRepetidoDeberiaFallar() {
+        bookService.saveBook(new Book(null, "1984", "George Orwell"));
+
+        assertThatThrownBy(() -> bookService.saveBook(new Book(null, " 1984", "George Orwell ")))
+            .isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(bookRepository.count()).isEqualTo(1);
+    }
+
+    private static List<Book> libros(int cantidad) {
+        return IntStream.range(0, cantidad)
+            .mapToObj(i -> new Book(null, "Libro " + i, "Autor " + (i % 13)))
+            .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+    }
+}
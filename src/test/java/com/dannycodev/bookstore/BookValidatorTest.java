@@ -0,0 +1,84 @@
+package com.dannycodev.bookstore;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+@DisplayName("Pruebas unitarias para BookValidator")
+class BookValidatorTest {
+
+    @Nested
+    @DisplayName("Validación")
+    class Validacion {
+
+        @Test
+        void libroValido_noDeberiaTenerInfracciones() {
+            assertThat(BookValidator.check(new Book(null, "1984", "George Orwell"))).isZero();
+        }
+
+        @Test
+        void deberiaAcumularTodasLasInfracciones() {
+            int infracciones = BookValidator.check(new Book(null, "", "\t"));
+
+            assertThat(BookValidator.messages(infracciones))
+                .containsExactly("El libro debe tener un título válido", "El libro debe tener un autor válido");
+        }
+
+        @Test
+        void requireValid_deberiaLanzarPrimeraInfraccion() {
+            Throwable thrown = catchThrowable(() -> BookValidator.requireValid(new Book(null, null, null)));
+
+            assertThat(thrown)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("El libro debe tener un título válido");
+        }
+    }
+
+    @Nested
+    @DisplayName("Normalización")
+    class Normalizacion {
+
+        @ParameterizedTest(name = "\"{0}\" -> \"{1}\"")
+        @CsvSource(delimiter = '|', value = {
+                "'  1984 '|1984",
+                "'Cien   años\tde  soledad'|Cien años de soledad",
+                "'\tGeorge\nOrwell '|George Orwell"
+        })
+        void deberiaRecortarYColapsarEspacios(String entrada, String esperado) {
+            assertThat(BookValidator.normalizeText(entrada)).isEqualTo(esperado);
+        }
+
+        @ParameterizedTest(name = "Sin cambios: \"{0}\"")
+        @ValueSource(strings = {"1984", "George Orwell", "Cien años de soledad"})
+        void noDeberiaCrearNuevoStringSiNoHayCambios(String entrada) {
+            assertThat(BookValidator.normalizeText(entrada)).isSameAs(entrada);
+        }
+    }
+
+    @Nested
+    @DisplayName("Validación por lotes")
+    class ValidacionPorLotes {
+
+        @Test
+        void deberiaSepararValidosDeRechazados() {
+            Book valido = new Book(null, " Ficciones ", "Borges");
+            Book sinAutor = new Book(null, "Sin autor", "");
+
+            BookValidator.Result resultado = BookValidator.validateAll(List.of(sinAutor, valido));
+
+            assertThat(resultado.valid()).containsExactly(valido);
+            assertThat(valido.getTitle()).isEqualTo("Ficciones");
+            assertThat(resultado.rejections())
+                .singleElement()
+                .satisfies(rechazo -> {
+                    assertThat(rechazo.index()).isZero();
+                    assertThat(rechazo.messages()).containsExactly("El libro debe tener un autor válido");
+                });
+        }
+    }
+}
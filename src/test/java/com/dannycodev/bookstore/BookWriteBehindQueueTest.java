@@ -0,0 +1,225 @@
+package com.dannycodev.bookstore;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Pruebas unitarias para BookWriteBehindQueue")
+class BookWriteBehindQueueTest {
+
+    @Mock
+    private BookService bookService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicLong ids = new AtomicLong();
+
+    private BookWriteBehindQueue cola(int capacidad) {
+        return new BookWriteBehindQueue(bookService, new TransactionTemplate(transactionManager),
+                capacidad, 100, Duration.ofMillis(20), Duration.ofMillis(50));
+    }
+
+    private void guardarConIds() {
+        when(bookService.saveBooks(anyList())).thenAnswer(invocation -> {
+            List<Book> libros = invocation.getArgument(0);
+            libros.forEach(libro -> libro.setId(ids.incrementAndGet()));
+            return libros;
+        });
+    }
+
+    @Test
+    @DisplayName("Debe agrupar las altas en una sola llamada a saveBooks")
+    void deberiaAgruparAltasEnUnLote() throws Exception {
+        guardarConIds();
+        BookWriteBehindQueue cola = cola(100);
+
+        CompletableFuture<Book> f1 = cola.saveBook(new Book(null, " Libro 1 ", "Autor"));
+        CompletableFuture<Book> f2 = cola.saveBook(new Book(null, "Libro 2", "Autor"));
+        cola.start();
+        cola.shutdown();
+
+        assertThat(f1.get(1, TimeUnit.SECONDS).getTitle()).isEqualTo("Libro 1");
+        assertThat(f2.get(1, TimeUnit.SECONDS).getId()).isNotNull();
+        verify(bookService, times(1)).saveBooks(anyList());
+    }
+
+    @Test
+    @DisplayName("Debe fusionar varias actualizaciones del mismo libro en una")
+    void deberiaFusionarActualizacionesDelMismoLibro() throws Exception {
+        when(bookService.updateBook(eq(1L), any(Book.class)))
+                .thenAnswer(invocation -> invocation.getArgument(1));
+        BookWriteBehindQueue cola = cola(100);
+
+        CompletableFuture<Book> primera = cola.updateBook(1L, new Book(null, "Borrador", "Autor"));
+        CompletableFuture<Book> ultima = cola.updateBook(1L, new Book(null, "Final", "Autor"));
+        cola.start();
+        cola.shutdown();
+
+        verify(bookService, times(1)).updateBook(eq(1L), any(Book.class));
+        assertThat(primera.get(1, TimeUnit.SECONDS).getTitle()).isEqualTo("Final");
+        assertThat(ultima.get(1, TimeUnit.SECONDS).getTitle()).isEqualTo("Final");
+    }
+
+    @Test
+    @DisplayName("Debe conservar la versión de la actualización y fallar si el libro cambió")
+    void deberiaFallarSiLaVersionYaNoCoincide() throws Exception {
+        when(bookService.updateBook(eq(1L), any(Book.class))).thenAnswer(invocation -> {
+            Book datos = invocation.getArgument(1);
+            if (datos.getVersion() != null) {
+                throw new OptimisticLockingFailureException("El libro 1 ha cambiado desde la versión 3");
+            }
+            return datos;
+        });
+        BookWriteBehindQueue cola = cola(100);
+
+        CompletableFuture<Book> condicional = cola.updateBook(1L, new Book(null, "Borrador", "Autor", 3L));
+        CompletableFuture<Book> ultima = cola.updateBook(1L, new Book(null, "Final", "Autor"));
+        cola.start();
+        cola.shutdown();
+
+        assertThatThrownBy(() -> condicional.get(1, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(ultima.get(1, TimeUnit.SECONDS).getTitle()).isEqualTo("Final");
+    }
+
+    @Test
+    @DisplayName("Si falla el lote, solo debe fallar la escritura culpable")
+    void deberiaAislarEscrituraFallida() throws Exception {
+        guardarConIds();
+        when(bookService.updateBook(eq(99L), any(Book.class)))
+                .thenThrow(new BookNotFoundException("No se puede actualizar: el libro no existe"));
+        BookWriteBehindQueue cola = cola(100);
+
+        CompletableFuture<Book> alta = cola.saveBook(new Book(null, "Libro", "Autor"));
+        CompletableFuture<Book> fallida = cola.updateBook(99L, new Book(null, "Libro", "Autor"));
+        cola.start();
+        cola.shutdown();
+
+        assertThat(alta.get(1, TimeUnit.SECONDS).getId()).isNotNull();
+        assertThatThrownBy(() -> fallida.get(1, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(BookNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Al reintentar de uno en uno, las altas del lote fallido deben seguir siendo altas")
+    void deberiaReintentarAltasComoAltas() throws Exception {
+        List<BookChangeType> tipos = new ArrayList<>();
+        when(bookService.saveBooks(anyList())).thenAnswer(invocation -> {
+            List<Book> libros = invocation.getArgument(0);
+            libros.forEach(libro -> {
+                tipos.add(BookService.changeType(libro));
+                // Como save(): el alta recibe id y versión aunque luego se revierta
+                libro.setId(ids.incrementAndGet());
+                libro.setVersion(0L);
+            });
+            return libros;
+        });
+        when(bookService.updateBook(eq(99L), any(Book.class)))
+                .thenThrow(new BookNotFoundException("No se puede actualizar: el libro no existe"));
+        BookWriteBehindQueue cola = cola(100);
+
+        CompletableFuture<Book> alta = cola.saveBook(new Book(null, "Libro", "Autor"));
+        cola.updateBook(99L, new Book(null, "Libro", "Autor"));
+        cola.start();
+        cola.shutdown();
+
+        assertThat(alta.get(1, TimeUnit.SECONDS).getId()).isNotNull();
+        assertThat(tipos).containsExactly(BookChangeType.CREATED, BookChangeType.CREATED);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar escrituras cuando la cola está llena")
+    void deberiaRechazarSiColaLlena() {
+        BookWriteBehindQueue cola = cola(1);
+
+        cola.saveBook(new Book(null, "Libro 1", "Autor"));
+        CompletableFuture<Book> rechazada = cola.saveBook(new Book(null, "Libro 2", "Autor"));
+
+        assertThat(rechazada).isCompletedExceptionally();
+        assertThatThrownBy(rechazada::join).hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(cola.pending()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debe validar en el momento, sin encolar libros inválidos")
+    void deberiaValidarAntesDeEncolar() {
+        BookWriteBehindQueue cola = cola(10);
+
+        assertThatThrownBy(() -> cola.saveBook(new Book(null, " ", "Autor")))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("El libro debe tener un título válido");
+        assertThat(cola.pending()).isZero();
+    }
+
+    @Test
+    @DisplayName("Toda escritura aceptada mientras se cierra la cola debe completarse")
+    void deberiaCompletarLoAceptadoDuranteElCierre() throws Exception {
+        guardarConIds();
+        BookWriteBehindQueue cola = cola(1_000_000);
+        cola.start();
+
+        List<Future<List<CompletableFuture<Book>>>> escritores = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 4; i++) {
+                escritores.add(executor.submit(() -> {
+                    List<CompletableFuture<Book>> aceptadas = new ArrayList<>();
+                    try {
+                        while (true) {
+                            aceptadas.add(cola.saveBook(new Book(null, "Libro", "Autor")));
+                        }
+                    } catch (IllegalStateException cerrada) {
+                        return aceptadas;
+                    }
+                }));
+            }
+            Thread.sleep(20);
+            cola.shutdown();
+
+            for (Future<List<CompletableFuture<Book>>> escritor : escritores) {
+                for (CompletableFuture<Book> aceptada : escritor.get(5, TimeUnit.SECONDS)) {
+                    assertThat(aceptada.get(5, TimeUnit.SECONDS).getId()).isNotNull();
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("No debe aceptar escrituras después de cerrarse")
+    void noDeberiaAceptarTrasCerrar() throws Exception {
+        BookWriteBehindQueue cola = cola(10);
+        cola.start();
+        cola.shutdown();
+
+        assertThatThrownBy(() -> cola.saveBook(new Book(null, "Libro", "Autor")))
+            .isInstanceOf(IllegalStateException.class);
+        verifyNoInteractions(bookService);
+    }
+}
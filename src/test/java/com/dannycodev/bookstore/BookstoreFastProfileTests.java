@@ -0,0 +1,36 @@
+package com.dannycodev.bookstore;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:fast-profile;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("fast")
+@DisplayName("Arranque con el perfil fast")
+class BookstoreFastProfileTests {
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Test
+    void deberiaCrearLosBeansAlUsarlos() {
+        assertThat(context.getBeanFactory().containsSingleton("bookCatalogTransfer")).isFalse();
+        // Tiene que haber alineado la secuencia antes de la primera alta
+        assertThat(context.getBeanFactory().containsSingleton("bookIdSequenceAligner")).isTrue();
+
+        BookService bookService = context.getBean(BookService.class);
+        List<Book> guardados = bookService.saveBooks(List.of(
+                new Book(null, "Libro 1", "Autor 1"),
+                new Book(null, "Libro 2", "Autor 2")));
+
+        assertThat(bookService.getBookById(guardados.get(1).getId()))
+            .hasValueSatisfying(libro -> assertThat(libro.getTitle()).isEqualTo("Libro 2"));
+        assertThat(bookService.searchBooks("libro", 10)).hasSize(2);
+    }
+}
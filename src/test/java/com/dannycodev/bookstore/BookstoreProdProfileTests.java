@@ -0,0 +1,30 @@
+package com.dannycodev.bookstore;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:prod-profile;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("prod")
+@DisplayName("Arranque con el perfil prod")
+class BookstoreProdProfileTests {
+
+    @Autowired
+    private BookService bookService;
+
+    @Test
+    void deberiaGuardarYListarConElPerfilProd() {
+        List<Book> guardados = bookService.saveBooks(List.of(
+                new Book(null, "Libro 1", "Autor 1"),
+                new Book(null, "Libro 2", "Autor 2")));
+
+        BookPage<BookView> pagina = bookService.getBookViewsPage(guardados.get(0).getId() - 1, 10);
+
+        assertThat(pagina.books()).extracting(BookView::title).containsExactly("Libro 1", "Libro 2");
+    }
+}
@@ -0,0 +1,73 @@
+package com.dannycodev.bookstore;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+@DisplayName("Pruebas unitarias para TimeOrderedIdGenerator")
+class TimeOrderedIdGeneratorTest {
+
+    /** Generador con un reloj controlado por el test. */
+    private static class RelojFijo extends TimeOrderedIdGenerator {
+        long ahora = TimeOrderedIdGenerator.EPOCH + 1_000;
+
+        RelojFijo(int nodo) {
+            super(nodo);
+        }
+
+        @Override
+        long currentMillis() {
+            return ahora;
+        }
+    }
+
+    @Test
+    @DisplayName("Los ids deben ser únicos y crecientes")
+    void deberiaGenerarIdsUnicosYCrecientes() {
+        TimeOrderedIdGenerator generador = new TimeOrderedIdGenerator(1);
+        Set<Long> vistos = new HashSet<>();
+        long anterior = -1;
+
+        for (int i = 0; i < 20_000; i++) {
+            long id = generador.nextId();
+            assertThat(id).isGreaterThan(anterior);
+            assertThat(vistos.add(id)).isTrue();
+            anterior = id;
+        }
+    }
+
+    @Test
+    @DisplayName("Debe codificar el nodo en el id")
+    void deberiaCodificarElNodo() {
+        long id = new RelojFijo(5).nextId();
+
+        long nodo = (id >> TimeOrderedIdGenerator.SEQUENCE_BITS) & TimeOrderedIdGenerator.MAX_NODE;
+        assertThat(nodo).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("No debe repetir ids si el reloj retrocede")
+    void noDeberiaRepetirIdsSiRelojRetrocede() {
+        RelojFijo generador = new RelojFijo(0);
+        long primero = generador.nextId();
+
+        generador.ahora -= 500;
+        long segundo = generador.nextId();
+
+        assertThat(segundo).isGreaterThan(primero);
+    }
+
+    @ParameterizedTest(name = "Nodo inválido: {0}")
+    @ValueSource(ints = {-1, 1024})
+    @DisplayName("Debe rechazar nodos fuera de rango")
+    void deberiaRechazarNodoFueraDeRango(int nodo) {
+        assertThatThrownBy(() -> new TimeOrderedIdGenerator(nodo))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}